@@ -0,0 +1,49 @@
+package chess;
+
+/**
+ * The corpus of middlegame positions shared by the benchmarks, written as FEN. They're
+ * taken from common openings once both sides have developed their pieces, so every
+ * piece type has a realistic number of moves and blockers.
+ * @author Haris Mehuljic
+ */
+final class BenchmarkPositions {
+    static final String[] MIDDLEGAMES = {
+        "r1bq1rk1/ppp2ppp/2np1n2/2b1p3/2B1P3/2NP1N2/PPP2PPP/R1BQ1RK1 w - - 0 7",
+        "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N2N2/PP2BPPP/R2Q1RK1 w - - 0 10",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "2rq1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/2RQ1RK1 w - - 0 11",
+        "r1b2rk1/2q1bppp/p2ppn2/1p6/3BPP2/2N2B2/PPPQ2PP/2KR3R w - - 0 13",
+        "r2qr1k1/1b1nbppp/p2p1n2/1p2p3/3PP3/1BP2N1P/PP1N1PP1/R1BQR1K1 w - - 0 13",
+        "r1bq1rk1/pp3ppp/2n1pn2/2bp4/2P5/P1N1PN2/1P1B1PPP/R2QKB1R b KQ - 0 8"
+    };
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * @return A new position for every FEN in the corpus.
+     */
+    static Position[] positions() {
+        Position[] positions = new Position[MIDDLEGAMES.length];
+
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = Position.fromFen(MIDDLEGAMES[i]);
+        }
+
+        return positions;
+    }
+
+    /**
+     * @return A new board set up with each position in the corpus.
+     */
+    static Board[] boards() {
+        Board[] boards = new Board[MIDDLEGAMES.length];
+
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new Board(MIDDLEGAMES[i]);
+        }
+
+        return boards;
+    }
+}
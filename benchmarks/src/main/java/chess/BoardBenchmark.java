@@ -0,0 +1,109 @@
+package chess;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the parts of {@link Board} used on every turn of the interactive game: drawing
+ * the board, drawing the possible moves for a piece, and parsing the coordinates typed in.
+ * Each operation covers every position in the middlegame corpus. The renderer benchmark
+ * shows and then hides the move highlights on a board that's already on the screen, which
+ * is what a turn of the interactive game costs.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    // A coordinate for each square a player might type, plus the mistakes players commonly make.
+    private static final String[] VALID_INPUTS = {"E2", "E4", "G1", "F3", "D7", "D5", "A1", "H8"};
+    private static final String[] INVALID_INPUTS = {"", "E", "I4", "E9", "Z1", "E44", "44", "Q"};
+
+    private Board[] boards;
+    private int[][] moves;
+    private int[] moveCounts;
+    private long[] targets;
+    private TerminalRenderer[] renderers;
+
+    @Setup
+    public void setup() {
+        boards = BenchmarkPositions.boards();
+        moves = new int[boards.length][MoveGenerator.MAX_MOVES];
+        moveCounts = new int[boards.length];
+
+        // The move highlights use every move for the side to move, which covers more squares than any single piece.
+        for (int i = 0; i < boards.length; i++) {
+            Position position = boards[i].getPosition();
+            moveCounts[i] = MoveGenerator.generateMoves(position, position.sideToMove(), moves[i], 0);
+        }
+
+        // Each board gets its own renderer, like a terminal of its own, with the board already drawn.
+        targets = new long[boards.length];
+        renderers = new TerminalRenderer[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            for (int j = 0; j < moveCounts[i]; j++) {
+                targets[i] |= 1L << Move.to(moves[i][j]);
+            }
+
+            renderers[i] = new TerminalRenderer(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+            renderers[i].render(boards[i], 0L, "");
+        }
+    }
+
+    @Benchmark
+    public void boardToString(Blackhole blackhole) {
+        for (Board board : boards) {
+            blackhole.consume(board.toString());
+        }
+    }
+
+    @Benchmark
+    public void possibleMovesRepresentation(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            blackhole.consume(boards[i].possibleMovesRepresentation(moves[i], moveCounts[i]));
+        }
+    }
+
+    @Benchmark
+    public void renderHighlights() {
+        for (int i = 0; i < boards.length; i++) {
+            renderers[i].render(boards[i], targets[i], "");
+            renderers[i].render(boards[i], 0L, "");
+        }
+    }
+
+    @Benchmark
+    public void parseValidInput(Blackhole blackhole) {
+        for (String input : VALID_INPUTS) {
+            blackhole.consume(boards[0].parseInput(input));
+        }
+    }
+
+    @Benchmark
+    public void parseInvalidInput(Blackhole blackhole) {
+        for (String input : INVALID_INPUTS) {
+            try {
+                blackhole.consume(boards[0].parseInput(input));
+            }
+            catch (IncorrectChessInputException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ChessPiece#calculateValidBoardMoves(Position, int[], int)} for each piece
+ * type over the middlegame corpus. Each operation generates the moves of every piece of
+ * that type belonging to the side to move, in every position of the corpus.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public String pieceType;
+
+    // Indexed by piece type, so that the names match the constants in ChessPiece.
+    private static final String[] TYPE_NAMES = {"NONE", "PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"};
+
+    private Position[] positions;
+    private ChessPiece[][] pieces; // The pieces of the chosen type belonging to the side to move in each position.
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        int type = Arrays.asList(TYPE_NAMES).indexOf(pieceType);
+
+        positions = BenchmarkPositions.positions();
+        pieces = new ChessPiece[positions.length][];
+
+        for (int i = 0; i < positions.length; i++) {
+            ArrayList<ChessPiece> found = new ArrayList<ChessPiece>();
+
+            for (long bits = positions[i].pieces(type, positions[i].sideToMove()); bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                found.add(ChessPiece.create(positions[i].pieceAt(square), square));
+            }
+
+            pieces[i] = found.toArray(new ChessPiece[0]);
+        }
+    }
+
+    @Benchmark
+    public int calculateValidBoardMoves() {
+        int total = 0;
+
+        for (int i = 0; i < positions.length; i++) {
+            for (ChessPiece piece : pieces[i]) {
+                total += piece.calculateValidBoardMoves(positions[i], moves, 0);
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,89 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MoveParser} on the same inputs as {@link BoardBenchmark}'s parsing benchmarks,
+ * so the two can be compared directly, and on every legal move of the middlegame corpus
+ * written in coordinate notation.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveParserBenchmark {
+    private static final String[] VALID_INPUTS = {"E2", "E4", "G1", "F3", "D7", "D5", "A1", "H8"};
+    private static final String[] INVALID_INPUTS = {"", "E", "I4", "E9", "Z1", "E44", "44", "Q"};
+
+    private Position[] positions;
+    private String[][] moveTexts;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.positions();
+        moveTexts = new String[positions.length][];
+
+        for (int i = 0; i < positions.length; i++) {
+            int count = MoveGenerator.generateLegalMoves(positions[i], moveBuffer);
+            List<String> texts = new ArrayList<String>();
+
+            for (int j = 0; j < count; j++) {
+                texts.add(Move.toString(moveBuffer[j]));
+            }
+
+            moveTexts[i] = texts.toArray(new String[0]);
+        }
+    }
+
+    @Benchmark
+    public int parseValidSquares() {
+        int total = 0;
+
+        for (String input : VALID_INPUTS) {
+            total += MoveParser.parseSquare(input);
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int parseInvalidSquares() {
+        int total = 0;
+
+        for (String input : INVALID_INPUTS) {
+            total += MoveParser.parseSquare(input);
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int parseMoves() {
+        int total = 0;
+
+        for (int i = 0; i < positions.length; i++) {
+            for (String text : moveTexts[i]) {
+                total += MoveParser.parseMove(positions[i], text, moveBuffer);
+            }
+        }
+
+        return total;
+    }
+}
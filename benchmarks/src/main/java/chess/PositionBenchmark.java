@@ -0,0 +1,87 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.engine.Evaluation;
+
+/**
+ * Measures whole-position move generation, making and taking back moves, and evaluation
+ * over the middlegame corpus. Each operation covers every position in the corpus.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+    private Position[] positions;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.positions();
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        int total = 0;
+
+        for (Position position : positions) {
+            total += MoveGenerator.generateMoves(position, position.sideToMove(), moves, 0);
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        int total = 0;
+
+        for (Position position : positions) {
+            total += MoveGenerator.generateLegalMoves(position, moves);
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int makeAndUnmakeMoves() {
+        int total = 0;
+
+        for (Position position : positions) {
+            int count = MoveGenerator.generateMoves(position, position.sideToMove(), moves, 0);
+
+            for (int i = 0; i < count; i++) {
+                position.makeMove(moves[i]);
+                total += position.halfmoveClock();
+                position.unmakeMove();
+            }
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int total = 0;
+
+        for (Position position : positions) {
+            total += Evaluation.evaluate(position);
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,99 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading and writing positions as FEN and in the binary encoding over the
+ * middlegame corpus. Each operation covers every position in the corpus.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionEncodingBenchmark {
+    private Position[] positions;
+    private final Position decoded = new Position();
+    private final ByteBuffer encoded = ByteBuffer.allocate(Position.ENCODED_SIZE * BenchmarkPositions.MIDDLEGAMES.length);
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.positions();
+
+        for (Position position : positions) {
+            position.encode(encoded);
+        }
+    }
+
+    @Benchmark
+    public long fromFen() {
+        long total = 0;
+
+        for (String fen : BenchmarkPositions.MIDDLEGAMES) {
+            total += Position.fromFen(fen).hash();
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public long loadFen() {
+        long total = 0;
+
+        for (String fen : BenchmarkPositions.MIDDLEGAMES) {
+            decoded.loadFen(fen);
+            total += decoded.hash();
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public int toFen() {
+        int total = 0;
+
+        for (Position position : positions) {
+            total += position.toFen().length();
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        encoded.clear();
+
+        for (Position position : positions) {
+            position.encode(encoded);
+        }
+
+        return encoded;
+    }
+
+    @Benchmark
+    public long decode() {
+        long total = 0;
+        encoded.rewind();
+
+        for (int i = 0; i < positions.length; i++) {
+            decoded.decode(encoded);
+            total += decoded.hash();
+        }
+
+        return total;
+    }
+}
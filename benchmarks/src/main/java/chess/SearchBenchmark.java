@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+
+/**
+ * Measures the time the engine takes to search every position in the middlegame corpus to
+ * a fixed depth, for different numbers of threads. The transposition table is cleared
+ * before each operation, so the times show how much the helper threads speed up the
+ * main thread.
+ * @author Haris Mehuljic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"5"})
+    public int depth;
+
+    private Position[] positions;
+    private Engine engine;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.positions();
+        engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearHash() {
+        engine.clearHash();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public long searchToDepth() {
+        long nodes = 0;
+
+        for (Position position : positions) {
+            nodes += engine.bestMove(position, SearchLimits.depth(depth)).getNodes();
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,313 @@
+package chess;
+
+/**
+ * Precomputed attack tables. Every square the king, knight and pawns attack from each
+ * square is worked out once when the class is loaded, and rook and bishop attacks are
+ * looked up with magic bitboards: the pieces standing on a slider's rays are multiplied by
+ * a "magic" number which turns them into an index into a table of every attack set that
+ * slider can have from that square. The queen combines both lookups.
+ *
+ * The magic numbers were found ahead of time with a trial search over random numbers with
+ * only a few bits set, keeping the first one for each square that never sends two different
+ * attack sets to the same slot. The tables themselves are filled in at startup.
+ *
+ * There are also tables of the squares between any two squares on the same line, and of
+ * the whole line through them, which are used to find pins and block checks.
+ * @see https://www.chessprogramming.org/Magic_Bitboards
+ * @author Haris Mehuljic
+ */
+public final class Attacks {
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x0A80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+        0xC200209084020008L, 0x2100010004000208L, 0x0400081000822421L, 0x0200010422048844L,
+        0x0800800080400024L, 0x0001402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+        0x0904802402480080L, 0x4040800400020080L, 0x0018808042000100L, 0x4040800080004100L,
+        0x0040048001458024L, 0x00A0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+        0x5004808008000401L, 0x2024818004000A00L, 0x0005808002000100L, 0x2100060004806104L,
+        0x0080400880008421L, 0x4062220600410280L, 0x010A004A00108022L, 0x0000100080080080L,
+        0x0021000500080010L, 0x0044000202001008L, 0x0000100400080102L, 0xC020128200040545L,
+        0x0080002000400040L, 0x0000804000802004L, 0x0000120022004080L, 0x010A386103001001L,
+        0x9010080080800400L, 0x8440020080800400L, 0x0004228824001001L, 0x000000490A000084L,
+        0x0080002000504000L, 0x200020005000C000L, 0x0012088020420010L, 0x0010010080080800L,
+        0x0085001008010004L, 0x0002000204008080L, 0x0040413002040008L, 0x0000304081020004L,
+        0x0080204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+        0x5000850800910100L, 0x8402019004680200L, 0x0120911028020400L, 0x0000008044010200L,
+        0x0020850200244012L, 0x0020850200244012L, 0x0000102001040841L, 0x140900040A100021L,
+        0x000200282410A102L, 0x000200282410A102L, 0x000200282410A102L, 0x4048240043802106L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x40106000A1160020L, 0x0020010250810120L, 0x2010010220280081L, 0x002806004050C040L,
+        0x0002021018000000L, 0x2001112010000400L, 0x0881010120218080L, 0x1030820110010500L,
+        0x0000120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x0003422A02000001L,
+        0x000A220210100040L, 0x8004820202226000L, 0x0018234854100800L, 0x0100004042101040L,
+        0x0004001004082820L, 0x0010000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+        0x0040880C00A00100L, 0x0080400200522010L, 0x0001000188180B04L, 0x0080249202020204L,
+        0x1004400004100410L, 0x00013100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+        0x4020848004002000L, 0x10101380D1004100L, 0x0008004422020284L, 0x01010A1041008080L,
+        0x0808080400082121L, 0x0808080400082121L, 0x0091128200100C00L, 0x0202200802010104L,
+        0x8C0A020200440085L, 0x01A0008080B10040L, 0x0889520080122800L, 0x100902022202010AL,
+        0x04081A0816002000L, 0x0000681208005000L, 0x8170840041008802L, 0x0A00004200810805L,
+        0x0830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+        0x0602010120110040L, 0x0941010801043000L, 0x000040440A210428L, 0x0008240020880021L,
+        0x0400002012048200L, 0x00AC102001210220L, 0x0220021002009900L, 0x84440C080A013080L,
+        0x0001008044200440L, 0x0004C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+        0x0044800112202200L, 0x0434804908100424L, 0x0300404822C08200L, 0x48081010008A2A80L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    // Directions as {horizontal step, vertical step}.
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{0, 1}, {1, 1}, {1, 0}, {1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, 1}};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+            PAWN_ATTACKS[ChessPiece.WHITE][square] = stepAttacks(square, new int[][] {{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[ChessPiece.BLACK][square] = stepAttacks(square, new int[][] {{-1, -1}, {1, -1}});
+        }
+
+        ROOK_TABLE = new long[buildMasks(ROOK_MASKS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_DIRECTIONS)];
+        BISHOP_TABLE = new long[buildMasks(BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_DIRECTIONS)];
+        fillTable(ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_TABLE, ROOK_DIRECTIONS);
+        fillTable(BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_TABLE, BISHOP_DIRECTIONS);
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long ends = (1L << from) | (1L << to);
+
+                // Two squares share a line if a slider on one attacks the other on an empty board.
+                if (from != to && (rook(from, 0L) & (1L << to)) != 0) {
+                    LINE[from][to] = (rook(from, 0L) & rook(to, 0L)) | ends;
+                    BETWEEN[from][to] = rook(from, 1L << to) & rook(to, 1L << from);
+                }
+                else if (from != to && (bishop(from, 0L) & (1L << to)) != 0) {
+                    LINE[from][to] = (bishop(from, 0L) & bishop(to, 0L)) | ends;
+                    BETWEEN[from][to] = bishop(from, 1L << to) & bishop(to, 1L << from);
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * @param square The square the knight is on.
+     * @return Every square a knight on that square attacks.
+     */
+    public static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @param square The square the king is on.
+     * @return Every square a king on that square attacks.
+     */
+    public static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param color The color of the pawn.
+     * @param square The square the pawn is on.
+     * @return The squares diagonally in front of the pawn which it can capture on.
+     */
+    public static long pawn(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    /**
+     * @param square The square the rook is on.
+     * @param occupied Every occupied square on the board.
+     * @return Every square the rook attacks, including the first blocking piece on each line.
+     */
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @param square The square the bishop is on.
+     * @param occupied Every occupied square on the board.
+     * @return Every square the bishop attacks, including the first blocking piece on each diagonal.
+     */
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * @param square The square the queen is on.
+     * @param occupied Every occupied square on the board.
+     * @return Every square the queen attacks.
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * @param piece The piece code of the attacking piece.
+     * @param square The square the piece is on.
+     * @param occupied Every occupied square on the board.
+     * @return Every square the piece attacks. For pawns, these are only its diagonal captures.
+     */
+    public static long piece(int piece, int square, long occupied) {
+        switch (ChessPiece.typeOf(piece)) {
+            case ChessPiece.PAWN:
+                return pawn(ChessPiece.colorOf(piece), square);
+            case ChessPiece.KNIGHT:
+                return knight(square);
+            case ChessPiece.BISHOP:
+                return bishop(square, occupied);
+            case ChessPiece.ROOK:
+                return rook(square, occupied);
+            case ChessPiece.QUEEN:
+                return queen(square, occupied);
+            case ChessPiece.KING:
+                return king(square);
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * @param from A square.
+     * @param to Another square.
+     * @return The squares strictly between the two, or nothing if they aren't on the same
+     * row, column or diagonal.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @param from A square.
+     * @param to Another square.
+     * @return Every square of the row, column or diagonal through both squares, from edge to
+     * edge, or nothing if they aren't on the same line.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Works out the squares a non-sliding piece attacks.
+     * @param square The square the piece is on.
+     * @param steps Every step the piece can take.
+     * @return The attacked squares that are on the board.
+     */
+    private static long stepAttacks(int square, int[][] steps) {
+        long attacks = 0L;
+        int x = square & 7;
+        int y = square >>> 3;
+
+        for (int[] step : steps) {
+            int toX = x + step[0];
+            int toY = y + step[1];
+
+            if (toX >= 0 && toX < 8 && toY >= 0 && toY < 8) {
+                attacks |= 1L << (toY * 8 + toX);
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Walks each ray square by square until it leaves the board or hits a piece. This is
+     * only used to fill in the tables when the class is loaded.
+     * @param square The square the slider is on.
+     * @param occupied The occupied squares.
+     * @param directions The directions the slider moves in.
+     * @return The attacked squares.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0];
+            int y = (square >>> 3) + direction[1];
+
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                long bit = 1L << (y * 8 + x);
+                attacks |= bit;
+
+                if ((occupied & bit) != 0) { // The ray stops at the first piece it reaches.
+                    break;
+                }
+
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Works out which squares can block a slider on each square. The edge of the board is
+     * left out since a piece there can never block anything further along the ray.
+     * @return The total table size needed for every square.
+     */
+    private static int buildMasks(long[] masks, int[] shifts, int[] offsets, int[][] directions) {
+        int size = 0;
+
+        for (int square = 0; square < 64; square++) {
+            long mask = 0L;
+
+            for (int[] direction : directions) {
+                int x = (square & 7) + direction[0];
+                int y = (square >>> 3) + direction[1];
+
+                // Only keep going while the next step is still on the board.
+                while (x + direction[0] >= 0 && x + direction[0] < 8 && y + direction[1] >= 0 && y + direction[1] < 8) {
+                    mask |= 1L << (y * 8 + x);
+                    x += direction[0];
+                    y += direction[1];
+                }
+            }
+
+            masks[square] = mask;
+            shifts[square] = 64 - Long.bitCount(mask);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(mask);
+        }
+
+        return size;
+    }
+
+    /**
+     * Stores the attacks for every arrangement of blockers around every square in the slot its magic number points to.
+     */
+    private static void fillTable(long[] masks, long[] magics, int[] shifts, int[] offsets, long[] table, int[][] directions) {
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            long subset = 0L;
+
+            // Goes through every subset of the mask (the "Carry-Rippler" trick).
+            do {
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                table[offsets[square] + index] = slidingAttacks(square, subset, directions);
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Scanner;
+
+/**
+ * The main class which controls the board. Stores the current position as bitboards
+ * along with the captured pieces, handles moving the pieces during each player's turn,
+ * and contains a generator for a String representation of the board to be outputted
+ * to the terminal.
+ * @author Haris Mehuljic
+ */
+public class Board {
+    // Results of applyMove()
+    public static final int MOVE_APPLIED = 0;
+    public static final int INVALID_SQUARE = 1;
+    public static final int NO_PIECE = 2;
+    public static final int NOT_YOUR_PIECE = 3;
+    public static final int ILLEGAL_MOVE = 4;
+    public static final int KING_LEFT_IN_CHECK = 5;
+    public static final int TOO_MANY_MOVES = 6;
+
+    private static final String MOVE_PROMPT = " Please type the coordinates of the move you would like to make (or press 'enter' to choose another piece).";
+
+    private Position position;
+    private ArrayList<ChessPiece> capturedPieces = new ArrayList<ChessPiece>();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES]; // Reused for every move so generating them doesn't create any objects.
+
+    public Board() {
+        position = Position.startingPosition();
+    }
+
+    /**
+     * Creates a board set up from Forsyth-Edwards Notation (FEN). The pieces captured before
+     * the position aren't known, so none are shown.
+     * @param fen The FEN string, i.e. "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1".
+     * @throws IllegalArgumentException If the string isn't valid FEN.
+     */
+    public Board(String fen) {
+        position = Position.fromFen(fen);
+    }
+
+    /**
+     * A string representation of the chessboard using simple ASCII box and shading characters.
+     * The interactive game draws the board with a {@link TerminalRenderer} instead, which only
+     * redraws what changed.
+     */
+    public String toString() {
+        StringBuilder boardRepresentation = new StringBuilder(1024);
+
+        appendBoard(boardRepresentation, 0L, true);
+        boardRepresentation.append('\n');
+        appendCapturedPieces(boardRepresentation);
+
+        return boardRepresentation.toString();
+    }
+
+    /**
+     * Adds the board grid, with the row numbers and column letters, to a StringBuilder.
+     * @param out The StringBuilder to add to.
+     * @param targets The squares to fill in when the pieces aren't shown, one bit per square.
+     * @param showPieces True to show the pieces and the shaded squares, false to show only the targets.
+     */
+    void appendBoard(StringBuilder out, long targets, boolean showPieces) {
+        out.append(" ┌─┬─┬─┬─┬─┬─┬─┬─┐\n");
+
+        for (int i = 0; i < 8; i++) {
+            out.append(8 - i); // Adding the row number for each board row.
+
+            for (int k = 0; k < 8; k++) {
+                /* Because the rows are drawn from top to bottom, and the board coordinates
+                 * go from bottom to top, the row is flipped when finding the square.
+                 */
+                int square = Position.square(k + 1, 8 - i);
+                out.append('│');
+
+                if (showPieces) {
+                    out.append(squareSymbol(square, position.pieceAt(square)));
+                }
+                else {
+                    out.append((targets & (1L << square)) != 0 ? '█' : ' ');
+                }
+            }
+
+            // Capping each row and adding the bottom grid to them.
+            out.append("│\n");
+            if (i != 7) { out.append(" ├─┼─┼─┼─┼─┼─┼─┼─┤\n"); }
+        }
+
+        // Adding the bottom to the board grid and the letters representing columns.
+        out.append(" └─┴─┴─┴─┴─┴─┴─┴─┘\n  A B C D E F G H\n");
+    }
+
+    /**
+     * Adds the captured pieces, in a box, to a StringBuilder.
+     * @param out The StringBuilder to add to.
+     */
+    void appendCapturedPieces(StringBuilder out) {
+        if (capturedPieces.size() == 0) {
+            out.append("\n Captured Pieces: None\n");
+            return;
+        }
+
+        out.append("Captured Pieces:\n┌");
+        for (int i = 1; i < capturedPieces.size() * 2; i++) {
+            out.append('─');
+        }
+
+        out.append("┐\n│");
+        for (int i = 0; i < capturedPieces.size(); i++) {
+            out.append(i == 0 ? "" : " ").append(capturedPieces.get(i));
+        }
+
+        out.append("│\n└");
+        for (int i = 1; i < capturedPieces.size() * 2; i++) {
+            out.append('─');
+        }
+
+        out.append("┘\n");
+    }
+
+    /**
+     * @param square The square being drawn.
+     * @param piece The piece code on it, or {@link ChessPiece#NONE}.
+     * @return The piece's symbol, or for an empty square the classic black and white grid pattern.
+     */
+    static String squareSymbol(int square, int piece) {
+        if (piece != ChessPiece.NONE) {
+            return ChessPiece.displaySymbol(piece);
+        }
+
+        // A1 is a black square, and the colors alternate along every row and column.
+        return ((square >>> 3) + (square & 7)) % 2 == 0 ? "░" : "█";
+    }
+
+    /**
+     * Selects the piece to be moved.
+     * @param isBlack If the current play is for black or white.
+     */
+    public void play(String input, boolean isBlack, Scanner keyboard) throws IncorrectChessInputException {
+        play(input, isBlack, keyboard, null);
+    }
+
+    /**
+     * Selects the piece to be moved, showing its possible moves with a renderer.
+     * @param isBlack If the current play is for black or white.
+     * @param renderer The renderer that draws the board, or null to print the possible moves as text.
+     */
+    public void play(String input, boolean isBlack, Scanner keyboard, TerminalRenderer renderer) throws IncorrectChessInputException {
+        int square = parseSquare(input);
+        int piece = position.pieceAt(square);
+
+        // Checks if there is a piece in the desired position and if it's the current player's color.
+        if (piece == ChessPiece.NONE) {
+            throw new IncorrectChessInputException("There isn't a piece in that position, try again.");
+        } // If the piece is the opposite color, output an error to the player.
+        else if ((ChessPiece.colorOf(piece) == ChessPiece.BLACK) != isBlack) {
+            throw new IncorrectChessInputException("Desired piece is not your piece!");
+        }
+
+        // The same limit applyMove() checks, so a very long game ends with a message instead of an exception.
+        if (position.historySize() == Position.MAX_HISTORY) {
+            throw new IncorrectChessInputException(describeResult(TOO_MANY_MOVES));
+        }
+
+        ChessPiece chosenPiece = ChessPiece.create(piece, square);
+        movePieceToDesiredPos(chosenPiece, keyboard, renderer);
+    }
+
+    /**
+     * Moves the piece to the specified position and captures pieces
+     * @param chosenPiece The piece to be moved.
+     * @param keyboard The Scanner object currently being used.
+     * @param renderer The renderer that draws the board, or null to print the possible moves as text.
+     * @throws IncorrectChessInputException An error if the selected piece doesn't have any available moves or if an invalid move is picked.
+     */
+    private void movePieceToDesiredPos(ChessPiece chosenPiece, Scanner keyboard, TerminalRenderer renderer) throws IncorrectChessInputException {
+        int moveCount = chosenPiece.calculateValidBoardMoves(position, moveBuffer, 0);
+        moveCount = MoveGenerator.filterLegalMoves(position, moveBuffer, moveCount); // Moves that leave the king in check aren't allowed.
+        boolean validMoveChosen = false;
+        String errorMsg = "";
+
+        // Checks to see if the piece has any valid moves available. If not, it throws an error.
+        if (moveCount == 0) {
+            throw new IncorrectChessInputException(isInCheck()
+                ? "That piece can't get your king out of check. Please select another piece."
+                : "That piece does not have any possible moves. Please select another piece.");
+        }
+
+        // Keeps looping as long as a valid move has not been chosen
+        while(!validMoveChosen) {
+            if (renderer != null) {
+                // The possible moves are highlighted on the board itself, so only those squares are redrawn.
+                renderer.render(this, targets(moveBuffer, moveCount), errorMsg + "Here are your possible moves, highlighted on the board." + MOVE_PROMPT + "\n");
+            }
+            else {
+                System.out.print(errorMsg);
+                System.out.println(possibleMovesRepresentation(moveBuffer, moveCount));
+            }
+
+            int to = parseSquare(keyboard.nextLine());
+            
+            /* Loop through all the possible moves and check if the chosen move is one of them.
+             * When a pawn reaches the last row, its promotion to a queen comes first, so that's the one picked.
+             */
+            for (int i = 0; i < moveCount; i++) {
+                if (Move.to(moveBuffer[i]) == to) {
+                    // If it is, move the piece
+                    validMoveChosen = true;
+                    makeMove(moveBuffer[i]);
+                    break;
+                }
+            }
+
+            // Tells the player to choose a valid move if the current choice was determined invalid.
+            if (!validMoveChosen) {
+                errorMsg = "That was not a valid move. Please choose a valid move according to the board.\n";
+            }
+        }
+
+    }
+
+    /**
+     * Moves a piece without any input or output, for when games are played by a program
+     * instead of at the keyboard. A pawn reaching the last row is turned into a queen, the same
+     * as in the interactive game.
+     * @param from The square of the piece to move, from 0 (A1) to 63 (H8).
+     * @param to The square to move it to.
+     * @return {@link #MOVE_APPLIED} if the move was made, or one of the other results if it wasn't allowed.
+     */
+    public int applyMove(int from, int to) {
+        return applyMove(from, to, ChessPiece.QUEEN);
+    }
+
+    /**
+     * Moves a piece without any input or output, like {@link #applyMove(int, int)}, with a
+     * choice of what a pawn reaching the last row turns into.
+     * @param from The square of the piece to move, from 0 (A1) to 63 (H8).
+     * @param to The square to move it to.
+     * @param promotion The piece type a pawn is promoted to. It's ignored for other moves.
+     * @return {@link #MOVE_APPLIED} if the move was made, or one of the other results if it wasn't allowed.
+     */
+    public int applyMove(int from, int to, int promotion) {
+        if (from < 0 || from > 63 || to < 0 || to > 63) {
+            return INVALID_SQUARE;
+        }
+
+        int piece = position.pieceAt(from);
+        if (piece == ChessPiece.NONE) {
+            return NO_PIECE;
+        }
+        else if (ChessPiece.colorOf(piece) != position.sideToMove()) {
+            return NOT_YOUR_PIECE;
+        }
+        else if (position.historySize() == Position.MAX_HISTORY) {
+            return TOO_MANY_MOVES;
+        }
+
+        int count = MoveGenerator.generateMoves(position, position.sideToMove(), moveBuffer, 0);
+        int move = Move.NONE;
+
+        for (int i = 0; i < count; i++) {
+            int candidate = moveBuffer[i];
+
+            if (Move.from(candidate) == from && Move.to(candidate) == to
+                && (!Move.isPromotion(candidate) || Move.promotion(candidate) == promotion)) {
+                move = candidate;
+                break;
+            }
+        }
+
+        if (move == Move.NONE) {
+            return ILLEGAL_MOVE;
+        }
+
+        // The piece can move there, but it's only allowed if the king isn't in check afterwards.
+        moveBuffer[0] = move;
+        if (MoveGenerator.filterLegalMoves(position, moveBuffer, 1) == 0) {
+            return KING_LEFT_IN_CHECK;
+        }
+
+        makeMove(move);
+        return MOVE_APPLIED;
+    }
+
+    /**
+     * @param result A result from {@link #applyMove(int, int)}.
+     * @return A message saying what the result means.
+     */
+    public static String describeResult(int result) {
+        switch (result) {
+            case MOVE_APPLIED: return "The move was made.";
+            case INVALID_SQUARE: return "A square is off the board.";
+            case NO_PIECE: return "There isn't a piece in that position.";
+            case NOT_YOUR_PIECE: return "That piece belongs to the other player.";
+            case ILLEGAL_MOVE: return "That piece can't move there.";
+            case KING_LEFT_IN_CHECK: return "That move would leave the king in check.";
+            case TOO_MANY_MOVES: return "The game is too long to keep track of.";
+            default: return "Unknown result " + result + ".";
+        }
+    }
+
+    /**
+     * Sets the pieces back to their starting positions for a new game.
+     */
+    public void reset() {
+        position.loadFen(Perft.STARTING_FEN);
+        capturedPieces.clear();
+    }
+
+    /**
+     * Makes a move on the board and keeps track of the piece it captures.
+     * @param move The packed move to make.
+     */
+    private void makeMove(int move) {
+        if (Move.isCapture(move)) {
+            capturedPieces.add(ChessPiece.create(Move.captured(move), Move.to(move)));
+        }
+
+        position.makeMove(move);
+    }
+
+    /**
+     * Generates a representation of the board with only the squares that are possible moves 
+     * for that piece are highlighted. The grid is drawn the same way as the Board toString().
+     * @param moves The buffer holding the possible moves for the piece.
+     * @param moveCount The number of moves in the buffer.
+     * @return The representation of the board.
+     */
+    String possibleMovesRepresentation(int[] moves, int moveCount) {
+        StringBuilder boardRepresentation = new StringBuilder(1024);
+        boardRepresentation.append("Here are your possible moves:\n");
+
+        appendBoard(boardRepresentation, targets(moves, moveCount), false);
+        boardRepresentation.append(MOVE_PROMPT);
+
+        return boardRepresentation.toString();
+    }
+
+    /**
+     * @return The squares the moves go to, one bit per square.
+     */
+    private static long targets(int[] moves, int moveCount) {
+        long targets = 0L;
+
+        for (int i = 0; i < moveCount; i++) {
+            targets |= 1L << Move.to(moves[i]);
+        }
+
+        return targets;
+    }
+
+    /**
+     * Parses the user input into numerical values.
+     * @param coord Takes in the user's inputted coordinate (i.e. 'E4'). The letter can be uppercase or lowercase.
+     * @return Returns the corresponding numerical value for the input in an integer[] (i.e. [5, 4] for 'E4').
+     * @throws IncorrectChessInputException If the input is not in the correct format, this exception is thrown.
+     */
+    int[] parseInput(String coord) throws IncorrectChessInputException {
+        int square = parseSquare(coord);
+        return new int[] {Position.rankPositionOf(square), Position.filePositionOf(square)};
+    }
+
+    /**
+     * Parses the user input into a square number with {@link MoveParser}, which reports bad
+     * input without throwing, and only turns that into an exception for the interactive game.
+     * @param coord Takes in the user's inputted coordinate (i.e. 'E4'). The letter can be uppercase or lowercase.
+     * @return The square, from 0 (A1) to 63 (H8).
+     * @throws IncorrectChessInputException If the input is not in the correct format or is off the board.
+     */
+    int parseSquare(String coord) throws IncorrectChessInputException {
+        int square = MoveParser.parseSquare(coord);
+
+        if (square == MoveParser.OUT_OF_BOUNDS) {
+            throw new IncorrectChessInputException("Coordinate that was inputted is out of bounds.");
+        }
+        else if (MoveParser.isError(square)) {
+            throw new IncorrectChessInputException("Coordinate that was inputted is not in the correct format.");
+        }
+
+        return square;
+    }
+
+    /**
+     * @return True if the king of the player whose turn it is is attacked.
+     */
+    public boolean isInCheck() {
+        return position.isKingAttacked(position.sideToMove());
+    }
+
+    /**
+     * @return True if the player whose turn it is is in check and has no legal moves, which ends the game.
+     */
+    public boolean isCheckmate() {
+        return isInCheck() && MoveGenerator.generateLegalMoves(position, moveBuffer) == 0;
+    }
+
+    /**
+     * @return True if the player whose turn it is isn't in check but has no legal moves, which ends the game in a draw.
+     */
+    public boolean isStalemate() {
+        return !isInCheck() && MoveGenerator.generateLegalMoves(position, moveBuffer) == 0;
+    }
+
+    /**
+     * @return True if the current position has come up three times, which ends the game in a draw.
+     */
+    public boolean isThreefoldRepetition() {
+        return position.isThreefoldRepetition();
+    }
+
+    /**
+     * @return True if there has been no capture or pawn move in the last 50 moves by each player,
+     * which ends the game in a draw.
+     */
+    public boolean isFiftyMoveRule() {
+        return position.isFiftyMoveRule();
+    }
+
+    /**
+     * @return The current position in Forsyth-Edwards Notation (FEN).
+     */
+    public String toFen() {
+        return position.toFen();
+    }
+
+    /**
+     * Writes the current position in its {@link Position#ENCODED_SIZE} byte binary encoding.
+     * @param buffer The buffer to write to, starting at its current position.
+     * @see Position#encode(ByteBuffer)
+     */
+    public void encode(ByteBuffer buffer) {
+        position.encode(buffer);
+    }
+
+    /**
+     * Sets up the board from a position in its binary encoding. The captured pieces are cleared.
+     * @param buffer The buffer to read from, starting at its current position.
+     * @see Position#decode(ByteBuffer)
+     */
+    public void decode(ByteBuffer buffer) {
+        position.decode(buffer);
+        capturedPieces.clear();
+    }
+
+    /**
+     * @return The Zobrist hash of the current position, which identifies it without looking at every piece.
+     */
+    public long hash() {
+        return position.hash();
+    }
+
+    // Getters and setters    
+    public Position getPosition() {
+        return position;
+    }
+
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+
+    public ArrayList<ChessPiece> getCapturedPieces() {
+        return capturedPieces;
+    }
+
+    public void setCapturedPieces(ArrayList<ChessPiece> lostPieces) {
+        this.capturedPieces = lostPieces;
+    }
+}
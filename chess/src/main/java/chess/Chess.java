@@ -0,0 +1,159 @@
+package chess;
+
+import java.io.IOException;
+import java.util.Scanner;
+
+import chess.engine.Engine;
+import chess.engine.PonderingPlayer;
+import chess.engine.SearchLimits;
+import chess.engine.Uci;
+
+/**
+ * A chess game which displays a representation of the chess board in the terminal and
+ * takes in user input in order to move and capture pieces. The game calculates valid
+ * moves for the user's selected piece and displays it to the user for them to choose 
+ * were to move the piece. Castling and en passant are supported, moves that would leave
+ * the king in check aren't allowed, and the game ends on checkmate, stalemate, threefold
+ * repetition or the fifty-move rule. A pawn that reaches it's maximum file position is
+ * always turned into a queen. The board is drawn with a {@link TerminalRenderer}, which
+ * keeps it in place and only redraws the squares that change.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.Chess                               Plays a game in the terminal between two people
+ *  java chess.Chess engine [white|black] [ms]     Plays against the engine as the given color (white by default),
+ *                                                 with the engine taking the given time for each move (3000 by default)
+ *  java chess.Chess uci                           Runs the engine for a chess GUI instead, see {@link Uci}
+ * </pre>
+ * Against the engine, it keeps thinking about the move it expects while waiting for the
+ * player's move, so when that move is made its reply usually comes straight away (see
+ * {@link PonderingPlayer}).
+ * @author Haris Mehuljic
+ */
+public class Chess {
+    public static final long DEFAULT_ENGINE_MOVE_TIME = 3000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("uci")) {
+            Uci.main(args);
+            return;
+        }
+
+        // The engine plays the other color when it's asked for.
+        PonderingPlayer engine = null;
+        boolean engineIsBlack = true;
+        if (args.length > 0 && args[0].equals("engine")) {
+            engineIsBlack = args.length < 2 || !args[1].equals("black");
+            long moveTime = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_ENGINE_MOVE_TIME;
+            engine = new PonderingPlayer(new Engine(), SearchLimits.moveTime(moveTime));
+        }
+
+        Board board = new Board();
+        Scanner keyboard = new Scanner(System.in);
+        TerminalRenderer renderer = new TerminalRenderer(System.out);
+        StringBuilder message = new StringBuilder(256); // Everything shown below the board, drawn with it in one frame.
+
+        boolean gameActive = true;
+        boolean isBlacksTurn = false;
+        String errorMsg = "";
+
+        while (gameActive) {
+            message.setLength(0);
+
+            // If there was an error in the previous play attempt, show it to the player and erase it.
+            if (errorMsg.length() > 0) {
+                message.append(errorMsg).append('\n');
+                errorMsg = "";
+            }
+
+            // The game is over once the player to move has no legal moves left.
+            if (board.isCheckmate()) {
+                message.append("Checkmate! ").append(isBlacksTurn ? "White" : "Black").append(" wins.\n");
+                renderer.render(board, 0L, message);
+                keyboard.close();
+                gameActive = false;
+                break;
+            }
+            else if (board.isStalemate()) {
+                message.append("Stalemate! The game is a draw.\n");
+                renderer.render(board, 0L, message);
+                keyboard.close();
+                gameActive = false;
+                break;
+            }
+            else if (board.isThreefoldRepetition() || board.isFiftyMoveRule()) {
+                message.append(board.isThreefoldRepetition() ? "Threefold repetition!" : "Fifty moves without a capture or pawn move!")
+                    .append(" The game is a draw.\n");
+                renderer.render(board, 0L, message);
+                keyboard.close();
+                gameActive = false;
+                break;
+            }
+            else if (board.isInCheck()) {
+                message.append("Check! ");
+            }
+
+            // On the engine's turn, the engine moves and then starts thinking about the player's reply.
+            if (engine != null && isBlacksTurn == engineIsBlack) {
+                message.append("The engine is thinking...\n");
+                renderer.render(board, 0L, message);
+
+                long start = System.currentTimeMillis();
+                int hits = engine.getPonderHits();
+                int move = engine.findMove(board.getPosition());
+
+                int result = board.applyMove(Move.from(move), Move.to(move), Move.promotion(move));
+
+                // The engine would only find the same move again, i.e. once the game is too long to keep track of, so the game ends.
+                if (result != Board.MOVE_APPLIED) {
+                    message.setLength(0);
+                    message.append("The engine's move ").append(Move.toString(move)).append(" couldn't be played: ")
+                        .append(Board.describeResult(result)).append('\n');
+                    renderer.render(board, 0L, message);
+                    keyboard.close();
+                    gameActive = false;
+                    break;
+                }
+
+                engine.startPondering(board.getPosition());
+                errorMsg = "The engine played " + Move.toString(move) + " in " + (System.currentTimeMillis() - start) + " ms"
+                    + (engine.getPonderHits() > hits ? ", having predicted your move." : ".");
+                isBlacksTurn = !isBlacksTurn;
+                continue;
+            }
+
+            // Add on whose turn it is to the message
+            if(isBlacksTurn) {
+                message.append("Black's turn. ");
+            }
+            else {
+                message.append("White's turn. ");
+            }
+
+            message.append("Please select a piece by typing its board coordinate (i.e. 'E4' or 'e4') or type \"Q\" to quit the game:\n");
+            renderer.render(board, 0L, message);
+
+            String selectedCoord = keyboard.nextLine();
+
+            // Quit the game if the player types "Q"
+            if (selectedCoord.equals("Q")) {
+                keyboard.close();
+                gameActive = false;
+                break;
+            }
+
+            // Try the play; If an error is thrown, it's saved and displayed to the player in the next attempt.
+            try {
+                board.play(selectedCoord, isBlacksTurn, keyboard, renderer);
+                isBlacksTurn = !isBlacksTurn;
+            }
+            catch (IncorrectChessInputException e) {
+                errorMsg = e.getMessage();
+            }
+        }
+
+        if (engine != null) {
+            engine.close();
+        }
+    }
+}
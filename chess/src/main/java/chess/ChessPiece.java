@@ -0,0 +1,221 @@
+package chess;
+
+/**
+ * The main class for chess pieces. All piece variants inherit from this.
+ * Contains the toString representation for the piece, defines an abstract method
+ * for each subclass which is used to calculate valid moves for each variant, and 
+ * contains methods for calculating common moves that multiple pieces make.
+ * Also defines the piece codes used by the bitboards in {@link Position}.
+ * @author Haris Mehuljic
+ */
+public abstract class ChessPiece {
+    // Piece types. A piece code is its type with the fourth bit set if the piece is black.
+    public static final int NONE = 0;
+    public static final int PAWN = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    // Colors, used to index boards that are kept per color.
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    private static final String[] SYMBOLS = {" ", "p", "N", "B", "R", "Q", "K"};
+    private static final String[] DISPLAY_SYMBOLS = new String[16];
+
+    static {
+        // Builds the colored output for every piece code once, so the board can be drawn without creating new strings.
+        for (int type = PAWN; type <= KING; type++) {
+            DISPLAY_SYMBOLS[pieceCode(type, false)] = SYMBOLS[type];
+            DISPLAY_SYMBOLS[pieceCode(type, true)] = "\u001B[35m" + SYMBOLS[type] + "\u001B[0m";
+        }
+    }
+
+    private String name;
+    private String symbol;
+    private int type;
+
+    protected boolean black;
+    protected int rankPosition;
+    protected int filePosition;
+
+    /**
+     * Creates a new chess piece
+     * @param name The name of the piece.
+     * @param symbol The symbol to represent the piece on the board printed to the console.
+     * @param type The piece type, i.e. {@link #PAWN}.
+     * @param black Whether or not the piece is black.
+     * @param rankPosition The horizontal (x) coordinate of the piece on the board grid.
+     * @param filePosition The vertical (y) coordinate of the piece on the board grid.
+     */
+    public ChessPiece(String name, String symbol, int type, boolean black, int rankPosition, int filePosition) {
+        this.name = name;
+        this.symbol = symbol;
+        this.type = type;
+        this.black = black;
+        this.rankPosition = rankPosition;
+        this.filePosition = filePosition;
+    }
+
+    /**
+     * Creates the chess piece object for a piece code found on the board.
+     * @param piece The piece code.
+     * @param square The square the piece is on.
+     * @return A new piece of the matching subclass.
+     */
+    public static ChessPiece create(int piece, int square) {
+        boolean black = colorOf(piece) == BLACK;
+        int rank = Position.rankPositionOf(square);
+        int file = Position.filePositionOf(square);
+
+        switch (typeOf(piece)) {
+            case PAWN: return new Pawn(black, rank, file);
+            case KNIGHT: return new Knight(black, rank, file);
+            case BISHOP: return new Bishop(black, rank, file);
+            case ROOK: return new Rook(black, rank, file);
+            case QUEEN: return new Queen(black, rank, file);
+            case KING: return new King(black, rank, file);
+            default: throw new IllegalArgumentException("Not a piece code: " + piece);
+        }
+    }
+
+    /**
+     * @param type The piece type.
+     * @param black Whether or not the piece is black.
+     * @return The piece code for that type and color.
+     */
+    public static int pieceCode(int type, boolean black) {
+        return black ? type | 8 : type;
+    }
+
+    /**
+     * @param piece A piece code.
+     * @return The type of the piece, i.e. {@link #PAWN}.
+     */
+    public static int typeOf(int piece) {
+        return piece & 7;
+    }
+
+    /**
+     * @param piece A piece code.
+     * @return {@link #WHITE} or {@link #BLACK}.
+     */
+    public static int colorOf(int piece) {
+        return piece >>> 3;
+    }
+
+    /**
+     * @param piece A piece code, or {@link #NONE}.
+     * @return The same output as {@link #toString()} for a piece with that code, or a space for an empty square.
+     */
+    public static String displaySymbol(int piece) {
+        return piece == NONE ? SYMBOLS[NONE] : DISPLAY_SYMBOLS[piece];
+    }
+
+    /**
+     * Calculates valid moves for this piece type.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param moves The buffer the moves are written into as packed {@link Move} ints. It's reused
+     * between calls, so nothing new is created while generating moves.
+     * @param count The number of moves already in the buffer. New moves are written after them.
+     * @return The number of moves in the buffer once this piece's moves have been added.
+     */
+    public abstract int calculateValidBoardMoves(Position position, int[] moves, int count);
+
+    /**
+     * Adds a move for every square in a set of attacked squares that isn't blocked by a piece of the same color.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param from The square the moving piece is on.
+     * @param attacks The squares the piece attacks, looked up from {@link Attacks}.
+     * @param moves The buffer the moves are written into.
+     * @param count The number of moves already in the buffer.
+     * @return The new number of moves in the buffer.
+     */
+    protected static int addAttackedSquares(Position position, int from, long attacks, int[] moves, int count) {
+        int piece = position.pieceAt(from);
+        long targets = attacks & ~position.colorOccupancy(colorOf(piece)); // Pieces of the same color can't be captured.
+
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.create(from, to, piece, position.pieceAt(to), NONE, Move.NORMAL);
+            targets &= targets - 1; // Clears the lowest set bit.
+        }
+
+        return count;
+    }
+
+    /**
+     * @param piece The piece code of another piece.
+     * @return True if the other piece is the opposite color of this one.
+     */
+    protected boolean isOpponent(int piece) {
+        return (colorOf(piece) == BLACK) != black;
+    }
+
+    /**
+     * @return The symbol of the piece. If the piece is black, it colors its output using ANSI codes, if it's white, it returns just the symbol.
+     * @see Used to figure out how to color the text that is output:
+     * https://stackoverflow.com/questions/5762491/how-to-print-color-in-console-using-system-out-println
+     * https://www.geeksforgeeks.org/how-to-print-colored-text-in-java-console/
+     */
+    public String toString() {
+        if (black) {
+            return "\u001B[35m" + symbol + "\u001B[0m"; // "\u001B[35m" is the code for purple, "\u001B[0m" is the reset code
+        }
+        else {
+            return symbol;
+        }
+    }
+
+    // Getters and setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public boolean isBlack() {
+        return black;
+    }
+
+    public void setBlack(boolean black) {
+        this.black = black;
+    }
+
+    public int getRankPosition() {
+        return rankPosition;
+    }
+
+    public int getFilePosition() {
+        return filePosition;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getPieceCode() {
+        return pieceCode(type, black);
+    }
+
+    public int getSquare() {
+        return Position.square(rankPosition, filePosition);
+    }
+
+    public void movePiece(int rankPosition, int filePosition) {
+        this.rankPosition = rankPosition;
+        this.filePosition = filePosition;
+    }
+}
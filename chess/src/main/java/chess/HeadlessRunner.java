@@ -0,0 +1,189 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Plays recorded games through the rules of the board without drawing it or asking for input.
+ * Each line of the input is one game from the starting position, written as moves in
+ * coordinate notation separated by spaces, i.e. "e2e4 e7e5 g1f3". A fifth letter picks what
+ * a pawn is promoted to, i.e. "e7e8n", and a queen is used without one. Moves can also be
+ * written in SAN, i.e. "e4 e5 Nf3", and the moves are read with {@link MoveParser}. Empty
+ * lines and lines starting with "#" are skipped.
+ *
+ * Every game is checked move by move with {@link Board#applyMove(int, int, int)}. A game stops
+ * at its first move that isn't allowed, and that move is reported along with the reason. The
+ * rest of the games are still checked.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.HeadlessRunner [file]   Checks the games in the file (or standard input if there is none or it's "-"),
+ *                                     printing every move that isn't allowed, how each game ended and how many games
+ *                                     were checked per second
+ * </pre>
+ * The program exits with status 1 if any game has a move that isn't allowed.
+ * @author Haris Mehuljic
+ */
+public class HeadlessRunner {
+    public static final int CHECKMATE = 0;
+    public static final int STALEMATE = 1;
+    public static final int DRAW = 2; // By threefold repetition or the fifty-move rule.
+    public static final int UNFINISHED = 3;
+    public static final int INVALID = 4;
+
+    private static final String[] OUTCOME_NAMES = {"checkmate", "stalemate", "draw", "unfinished", "invalid"};
+
+    private final Board board = new Board();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final long[] outcomes = new long[OUTCOME_NAMES.length];
+    private long games;
+    private long moves;
+    private String lastError;
+
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "-";
+        HeadlessRunner runner = new HeadlessRunner();
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(file.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8), 1 << 16)) {
+            int lineNumber = 0;
+
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if (runner.playGame(line) == INVALID) {
+                    System.out.println("Game " + runner.games + " (line " + lineNumber + "): " + runner.lastError);
+                }
+            }
+        }
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.out.printf("%d games, %d moves in %.2f s, %.0f games/s, %.0f moves/s%n",
+                          runner.games, runner.moves, seconds, runner.games / seconds, runner.moves / seconds);
+
+        for (int i = 0; i < OUTCOME_NAMES.length; i++) {
+            System.out.println(OUTCOME_NAMES[i] + " " + runner.outcomes[i]);
+        }
+
+        System.exit(runner.outcomes[INVALID] == 0 ? 0 : 1);
+    }
+
+    /**
+     * Plays one game from the starting position.
+     * @param line The moves of the game in coordinate notation or SAN, separated by spaces.
+     * @return How the game ended: {@link #CHECKMATE}, {@link #STALEMATE}, {@link #DRAW},
+     * {@link #UNFINISHED} if it ended without any of those, or {@link #INVALID} if it has a
+     * move that isn't allowed, which is described by {@link #getLastError()}.
+     */
+    public int playGame(CharSequence line) {
+        board.reset();
+        games++;
+        lastError = null;
+
+        int outcome = UNFINISHED;
+        int index = 0;
+        int moveNumber = 0;
+
+        while (outcome == UNFINISHED) {
+            while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+                index++;
+            }
+
+            if (index == line.length()) {
+                break;
+            }
+
+            int end = index;
+            while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+
+            moveNumber++;
+            int result = playMove(line, index, end);
+
+            if (result != Board.MOVE_APPLIED) {
+                lastError = "move " + moveNumber + " " + line.subSequence(index, end) + ": "
+                    + (MoveParser.isError(result) ? MoveParser.describeError(result) : Board.describeResult(result));
+                outcome = INVALID;
+            }
+
+            index = end;
+        }
+
+        if (outcome == UNFINISHED) {
+            if (board.isCheckmate()) {
+                outcome = CHECKMATE;
+            }
+            else if (board.isStalemate()) {
+                outcome = STALEMATE;
+            }
+            else if (board.isThreefoldRepetition() || board.isFiftyMoveRule()) {
+                outcome = DRAW;
+            }
+        }
+
+        outcomes[outcome]++;
+        return outcome;
+    }
+
+    /**
+     * Reads a move like "e2e4", "e7e8n" or "Nf3" out of the line and makes it.
+     * @return The result of {@link Board#applyMove(int, int, int)}, or one of the {@link MoveParser}
+     * error codes if the text isn't a move.
+     */
+    private int playMove(CharSequence line, int start, int end) {
+        int coordinates = MoveParser.parseCoordinates(line, start, end);
+        int result;
+
+        if (coordinates >= 0) {
+            int promotion = MoveParser.coordinatesPromotion(coordinates);
+            result = board.applyMove(MoveParser.coordinatesFrom(coordinates), MoveParser.coordinatesTo(coordinates),
+                                     promotion != ChessPiece.NONE ? promotion : ChessPiece.QUEEN);
+        }
+        else {
+            // Anything else might be SAN, which needs the position to work out which piece is moving.
+            int move = MoveParser.parseMove(board.getPosition(), line, start, end, moveBuffer);
+
+            if (MoveParser.isError(move)) {
+                return move;
+            }
+
+            result = board.applyMove(Move.from(move), Move.to(move), Move.promotion(move));
+        }
+
+        if (result == Board.MOVE_APPLIED) {
+            moves++;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return A description of the first move that wasn't allowed in the last game played, or null if there wasn't one.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+}
@@ -1,3 +1,5 @@
+package chess;
+
 /**
  * A custom exception for errors that might arise whilst playing the game.
  * @author Haris Mehuljic
@@ -0,0 +1,81 @@
+package chess;
+
+/**
+ * The king chess piece. Contains the calculation for its valid moves.
+ * @author Haris Mehuljic
+ */
+public class King extends ChessPiece {
+
+    /**
+     * Creates a new chess piece
+     * @param name The name of the piece.
+     * @param symbol The symbol to represent the piece on the board printed to the console.
+     * @param black Whether or not the piece is black.
+     * @param rankPosition The horizontal (x) coordinate of the piece on the board grid.
+     * @param filePosition The vertical (y) coordinate of the piece on the board grid.
+     */
+    public King(boolean black, int rankPosition, int filePosition) {
+        super("King", "K", KING, black, rankPosition, filePosition);
+    }
+
+    @Override
+    public int calculateValidBoardMoves(Position position, int[] moves, int count) {
+        return generateMoves(position, getSquare(), moves, count);
+    }
+
+    /**
+     * Writes the moves of the king standing on a square into a move buffer.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param from The square the king is on.
+     * @param moves The buffer the packed moves are written into.
+     * @param count The number of moves already in the buffer.
+     * @return The new number of moves in the buffer.
+     */
+    public static int generateMoves(Position position, int from, int[] moves, int count) {
+        // The king can only move one space in any direction, as long as it's unobstructed
+        count = addAttackedSquares(position, from, Attacks.king(from), moves, count);
+        return generateCastling(position, from, moves, count);
+    }
+
+    /**
+     * Writes the castling moves of the king into a move buffer.
+     * @see #generateMoves(Position, int, int[], int)
+     */
+    public static int generateCastling(Position position, int from, int[] moves, int count) {
+        int piece = position.pieceAt(from);
+
+        if (canCastle(position, from, true)) {
+            moves[count++] = Move.create(from, from + 2, piece, NONE, NONE, Move.CASTLE);
+        }
+
+        if (canCastle(position, from, false)) {
+            moves[count++] = Move.create(from, from - 2, piece, NONE, NONE, Move.CASTLE);
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks whether the king can castle to one side. Castling needs the king and rook to not
+     * have moved yet (which the castling rights keep track of), the squares between them to be
+     * empty, and the king to not be in check or pass through a square that is attacked.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param from The square the king is on.
+     * @param kingside True for castling towards the H file, false for the A file.
+     * @return True if the king can castle that way.
+     */
+    public static boolean canCastle(Position position, int from, boolean kingside) {
+        int color = colorOf(position.pieceAt(from));
+        long occupied = position.occupied();
+
+        if (kingside) {
+            int right = color == WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+            return (position.castlingRights() & right) != 0 && (occupied & (3L << (from + 1))) == 0
+                && !position.isSquareAttacked(from, color ^ 1) && !position.isSquareAttacked(from + 1, color ^ 1);
+        }
+
+        int right = color == WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+        return (position.castlingRights() & right) != 0 && (occupied & (7L << (from - 3))) == 0
+            && !position.isSquareAttacked(from, color ^ 1) && !position.isSquareAttacked(from - 1, color ^ 1);
+    }
+}
@@ -0,0 +1,96 @@
+package chess;
+
+/**
+ * Moves packed into a single int, so lists of moves can be kept in plain int arrays
+ * without creating an object for each one. The bits are laid out as:
+ * <pre>
+ *  bits  0-5   the square the piece moves from
+ *  bits  6-11  the square the piece moves to
+ *  bits 12-15  the piece code of the moving piece
+ *  bits 16-19  the piece code of the captured piece, or 0 if nothing is captured
+ *  bits 20-22  the piece type a pawn is promoted to, or 0 if it isn't a promotion
+ *  bits 23-24  a flag for special moves, i.e. {@link #DOUBLE_PUSH}
+ * </pre>
+ * A value of 0 is never a real move since it has no moving piece, so it's used as {@link #NONE}.
+ * @author Haris Mehuljic
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    // Special move flags
+    public static final int NORMAL = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int CASTLE = 2;
+    public static final int EN_PASSANT = 3;
+
+    private Move() {
+    }
+
+    /**
+     * Packs a move into an int.
+     * @param from The square the piece moves from.
+     * @param to The square the piece moves to.
+     * @param piece The piece code of the moving piece.
+     * @param captured The piece code of the captured piece, or {@link ChessPiece#NONE}.
+     * @param promotion The piece type the pawn is promoted to, or {@link ChessPiece#NONE}.
+     * @param flag One of the special move flags.
+     * @return The packed move.
+     */
+    public static int create(int from, int to, int piece, int captured, int promotion, int flag) {
+        return from | (to << 6) | (piece << 12) | (captured << 16) | (promotion << 20) | (flag << 23);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static int captured(int move) {
+        return (move >>> 16) & 0xF;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 20) & 0x7;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 23) & 0x3;
+    }
+
+    public static boolean isCapture(int move) {
+        return captured(move) != ChessPiece.NONE;
+    }
+
+    public static boolean isPromotion(int move) {
+        return promotion(move) != ChessPiece.NONE;
+    }
+
+    /**
+     * @param move A packed move.
+     * @return The move in coordinate notation, i.e. "e2e4" or "e7e8q" for a promotion.
+     */
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+
+        if (isPromotion(move)) {
+            text += "nbrq".charAt(promotion(move) - ChessPiece.KNIGHT);
+        }
+
+        return text;
+    }
+
+    /**
+     * @param square A square number.
+     * @return The name of the square, i.e. "e4".
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+}
@@ -0,0 +1,265 @@
+package chess;
+
+/**
+ * Generates every move for one side of the board. The moves are written as packed
+ * {@link Move} ints into a buffer supplied by the caller, so a single buffer can be
+ * reused for every position and no objects are created while generating.
+ * @author Haris Mehuljic
+ */
+public final class MoveGenerator {
+    // No chess position has more than 218 moves, so this is always enough room for one position.
+    public static final int MAX_MOVES = 256;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Writes every move for the pieces of one color into a buffer. Moves that leave the king
+     * in check are included, just like the moves offered to the players.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param color The color of the pieces to move.
+     * @param moves The buffer the packed moves are written into.
+     * @param count The number of moves already in the buffer.
+     * @return The new number of moves in the buffer.
+     */
+    public static int generateMoves(Position position, int color, int[] moves, int count) {
+        long pieces;
+
+        // Going through each bitboard one set bit at a time visits every square holding that piece.
+        for (pieces = position.pieces(ChessPiece.PAWN, color); pieces != 0; pieces &= pieces - 1) {
+            count = Pawn.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        for (pieces = position.pieces(ChessPiece.KNIGHT, color); pieces != 0; pieces &= pieces - 1) {
+            count = Knight.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        for (pieces = position.pieces(ChessPiece.BISHOP, color); pieces != 0; pieces &= pieces - 1) {
+            count = Bishop.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        for (pieces = position.pieces(ChessPiece.ROOK, color); pieces != 0; pieces &= pieces - 1) {
+            count = Rook.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        for (pieces = position.pieces(ChessPiece.QUEEN, color); pieces != 0; pieces &= pieces - 1) {
+            count = Queen.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        for (pieces = position.pieces(ChessPiece.KING, color); pieces != 0; pieces &= pieces - 1) {
+            count = King.generateMoves(position, Long.numberOfTrailingZeros(pieces), moves, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes every capture and promotion for the pieces of one color into a buffer. Together
+     * with {@link #generateQuietMoves} these are the same moves as {@link #generateMoves}, split
+     * up so that a search can try the captures first and often never need the quiet moves.
+     * @see #generateMoves(Position, int, int[], int)
+     */
+    public static int generateCaptures(Position position, int color, int[] moves, int count) {
+        for (long pawns = position.pieces(ChessPiece.PAWN, color); pawns != 0; pawns &= pawns - 1) {
+            count = Pawn.generateCaptures(position, Long.numberOfTrailingZeros(pawns), moves, count);
+        }
+
+        return generatePieceMoves(position, color, position.colorOccupancy(color ^ 1), moves, count);
+    }
+
+    /**
+     * Writes every move that doesn't capture or promote for the pieces of one color into a buffer.
+     * @see #generateCaptures(Position, int, int[], int)
+     */
+    public static int generateQuietMoves(Position position, int color, int[] moves, int count) {
+        for (long pawns = position.pieces(ChessPiece.PAWN, color); pawns != 0; pawns &= pawns - 1) {
+            count = Pawn.generateQuietMoves(position, Long.numberOfTrailingZeros(pawns), moves, count);
+        }
+
+        count = generatePieceMoves(position, color, ~position.occupied(), moves, count);
+
+        for (long kings = position.pieces(ChessPiece.KING, color); kings != 0; kings &= kings - 1) {
+            count = King.generateCastling(position, Long.numberOfTrailingZeros(kings), moves, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes the moves of every piece but the pawns that land on one of the target squares,
+     * not counting castling.
+     */
+    private static int generatePieceMoves(Position position, int color, long targets, int[] moves, int count) {
+        long occupied = position.occupied();
+
+        for (int type = ChessPiece.KNIGHT; type <= ChessPiece.KING; type++) {
+            int piece = ChessPiece.pieceCode(type, color == ChessPiece.BLACK);
+
+            for (long pieces = position.pieces(piece); pieces != 0; pieces &= pieces - 1) {
+                int from = Long.numberOfTrailingZeros(pieces);
+
+                for (long to = Attacks.piece(piece, from, occupied) & targets; to != 0; to &= to - 1) {
+                    int square = Long.numberOfTrailingZeros(to);
+                    moves[count++] = Move.create(from, square, piece, position.pieceAt(square), ChessPiece.NONE, Move.NORMAL);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks whether a move could have been generated in a position, e.g. a move taken from
+     * the transposition table, which may have been stored for a different position. Like
+     * {@link #generateMoves}, this doesn't check whether the move leaves the king in check.
+     * @param position The position to check the move in.
+     * @param move A packed move.
+     * @return True if {@link #generateMoves} would have generated the move for the side to move.
+     */
+    public static boolean isPseudoLegal(Position position, int move) {
+        if (move == Move.NONE) {
+            return false;
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = Move.piece(move);
+        int color = position.sideToMove();
+        int flag = Move.flag(move);
+
+        if (position.pieceAt(from) != piece || ChessPiece.colorOf(piece) != color) {
+            return false;
+        }
+
+        if (flag == Move.EN_PASSANT) {
+            return to == position.enPassantSquare() && (Attacks.pawn(color, from) & (1L << to)) != 0;
+        }
+
+        // Anything else has to find the piece it was generated to capture, or an empty square, where it lands.
+        if (position.pieceAt(to) != Move.captured(move)) {
+            return false;
+        }
+
+        if (flag == Move.CASTLE) {
+            return Math.abs(to - from) == 2 && King.canCastle(position, from, to > from);
+        }
+
+        if (ChessPiece.typeOf(piece) == ChessPiece.PAWN && !Move.isCapture(move)) {
+            int forward = color == ChessPiece.WHITE ? 8 : -8;
+            return flag == Move.DOUBLE_PUSH ? to == from + 2 * forward && position.pieceAt(from + forward) == ChessPiece.NONE
+                : to == from + forward;
+        }
+
+        // The promotion piece needs no check, since a pawn on the same square always either promotes or doesn't.
+        return (Attacks.piece(piece, from, position.occupied()) & (1L << to)) != 0;
+    }
+
+    /**
+     * Writes every legal move for the side to move into a buffer. Instead of making each move
+     * to see whether it leaves the king in check, the pieces giving check and the pieces pinned
+     * to the king are worked out once, and the moves are filtered with them:
+     * <ul>
+     *  <li>In double check, only the king can move.</li>
+     *  <li>In single check, every other piece has to capture the checking piece or step
+     *      between it and the king.</li>
+     *  <li>A pinned piece can only move along the line between the king and the pinning piece.</li>
+     *  <li>The king can't move to an attacked square, looking through the king itself so it
+     *      can't step back along the line of a slider checking it.</li>
+     * </ul>
+     * En passant can uncover an attack along the row by taking two pieces off it at once, so
+     * those few moves are still made and taken back to check them.
+     * @param position The position to generate moves for.
+     * @param moves The buffer the packed moves are written into, starting at the front.
+     * @return The number of legal moves in the buffer.
+     */
+    public static int generateLegalMoves(Position position, int[] moves) {
+        return filterLegalMoves(position, moves, generateMoves(position, position.sideToMove(), moves, 0));
+    }
+
+    /**
+     * Removes the moves that would leave the king in check from a buffer of moves generated
+     * for the side to move, using the same checks as {@link #generateLegalMoves}.
+     * @param position The position the moves were generated for.
+     * @param moves The buffer holding the moves. The legal ones are moved to the front, in the same order.
+     * @param count The number of moves in the buffer.
+     * @return The number of legal moves.
+     */
+    public static int filterLegalMoves(Position position, int[] moves, int count) {
+        int color = position.sideToMove();
+        long kings = position.pieces(ChessPiece.KING, color);
+
+        // Without a king there's nothing to keep out of check, e.g. in positions set up for testing.
+        if (kings == 0) {
+            return count;
+        }
+
+        int king = Long.numberOfTrailingZeros(kings);
+        long occupied = position.occupied();
+        long enemies = position.colorOccupancy(color ^ 1);
+        long checkers = position.attackersTo(king, occupied) & enemies;
+        long evasions = -1L; // The squares that deal with the check, or every square if there is none.
+
+        if (Long.bitCount(checkers) > 1) {
+            evasions = 0L; // Nothing can block two checks at once, so only the king can move.
+        }
+        else if (checkers != 0) {
+            evasions = Attacks.between(king, Long.numberOfTrailingZeros(checkers)) | checkers;
+        }
+
+        long pinned = pinnedPieces(position, color, king);
+        long withoutKing = occupied ^ kings;
+        int legalCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            long to = 1L << Move.to(move);
+            boolean legal;
+
+            if (from == king) {
+                legal = (position.attackersTo(Move.to(move), withoutKing) & enemies) == 0;
+            }
+            else if (Move.flag(move) == Move.EN_PASSANT) {
+                position.makeMove(move);
+                legal = !position.isKingAttacked(color);
+                position.unmakeMove();
+            }
+            else {
+                legal = (to & evasions) != 0 && ((pinned & (1L << from)) == 0 || (Attacks.line(king, from) & to) != 0);
+            }
+
+            if (legal) {
+                moves[legalCount++] = move;
+            }
+        }
+
+        return legalCount;
+    }
+
+    /**
+     * Finds the pieces of a color that can't leave the line between their king and an enemy
+     * slider without exposing the king.
+     * @return The bitboard of the pinned pieces.
+     */
+    private static long pinnedPieces(Position position, int color, int king) {
+        int enemy = color ^ 1;
+        long queens = position.pieces(ChessPiece.QUEEN, enemy);
+        long occupied = position.occupied();
+        long pinned = 0L;
+
+        // Enemy sliders that would attack the king if nothing stood in the way.
+        long snipers = (Attacks.rook(king, 0L) & (position.pieces(ChessPiece.ROOK, enemy) | queens))
+            | (Attacks.bishop(king, 0L) & (position.pieces(ChessPiece.BISHOP, enemy) | queens));
+
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+
+            // With exactly one piece in the way, that piece is pinned if it's one of ours.
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & position.colorOccupancy(color);
+            }
+        }
+
+        return pinned;
+    }
+}
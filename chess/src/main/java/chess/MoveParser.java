@@ -0,0 +1,324 @@
+package chess;
+
+/**
+ * Reads squares and moves out of text without creating any objects or throwing exceptions,
+ * so that bad input costs no more than good input. Results are plain ints: a square number,
+ * a packed move, or one of the negative error codes below, which can never be mistaken for a
+ * square or a move.
+ *
+ * Moves can be written in any of the usual forms:
+ * <pre>
+ *  coordinate / UCI   e2e4, e7e8q, e1g1 (castling is written as the king's move)
+ *  SAN                e4, Nf3, exd5, Nbd7, R1e2, O-O, e8=Q+
+ * </pre>
+ * The text is read from a {@link CharSequence}, so a String, a StringBuilder reused for every
+ * line, or a CharBuffer over raw input all work, and only the characters between the given
+ * start and end are looked at.
+ * @author Haris Mehuljic
+ */
+public final class MoveParser {
+    // Error codes
+    public static final int INVALID_FORMAT = -1;
+    public static final int OUT_OF_BOUNDS = -2;
+    public static final int ILLEGAL_MOVE = -3;
+    public static final int AMBIGUOUS_MOVE = -4;
+
+    private MoveParser() {
+    }
+
+    /**
+     * @param code A result from one of the parse methods.
+     * @return True if it's an error code rather than a square or a move.
+     */
+    public static boolean isError(int code) {
+        return code < 0;
+    }
+
+    /**
+     * @param code One of the error codes.
+     * @return A message saying what's wrong with the input.
+     */
+    public static String describeError(int code) {
+        switch (code) {
+            case INVALID_FORMAT: return "The input is not in the correct format.";
+            case OUT_OF_BOUNDS: return "The input is out of bounds.";
+            case ILLEGAL_MOVE: return "That move isn't allowed in this position.";
+            case AMBIGUOUS_MOVE: return "More than one piece can make that move.";
+            default: return "Unknown error " + code + ".";
+        }
+    }
+
+    /**
+     * Reads a square like "e4" or "E4".
+     * @return The square, from 0 (A1) to 63 (H8), or {@link #INVALID_FORMAT} or {@link #OUT_OF_BOUNDS}.
+     */
+    public static int parseSquare(CharSequence text, int start, int end) {
+        if (end - start != 2) {
+            return INVALID_FORMAT;
+        }
+
+        char file = text.charAt(start);
+        char row = text.charAt(start + 1);
+
+        if (!isLetter(file) || row < '0' || row > '9') {
+            return INVALID_FORMAT;
+        }
+
+        int x = (file | 0x20) - 'a'; // Setting the 0x20 bit makes a letter lowercase.
+        int y = row - '1';
+        return x < 8 && y >= 0 && y < 8 ? y * 8 + x : OUT_OF_BOUNDS;
+    }
+
+    /**
+     * @see #parseSquare(CharSequence, int, int)
+     */
+    public static int parseSquare(CharSequence text) {
+        return parseSquare(text, 0, text.length());
+    }
+
+    /**
+     * Reads a move in coordinate notation, i.e. "e2e4" or "e7e8q", without checking it against a
+     * position. The files have to be lowercase, since "B1d4" is a bishop move in SAN.
+     * @return The move packed as the from square in bits 0-5, the to square in bits 6-11 and the
+     * promotion piece type (0 for none) in bits 12-14, the same as {@link Move}'s lowest bits.
+     * Otherwise {@link #INVALID_FORMAT} or {@link #OUT_OF_BOUNDS}.
+     */
+    public static int parseCoordinates(CharSequence text, int start, int end) {
+        int length = end - start;
+
+        if (length != 4 && length != 5) {
+            return INVALID_FORMAT;
+        }
+
+        int from = parseSquare(text, start, start + 2);
+        int to = parseSquare(text, start + 2, start + 4);
+        int promotion = ChessPiece.NONE;
+
+        if (length == 5) {
+            promotion = promotionType(text.charAt(start + 4));
+
+            if (promotion == ChessPiece.NONE) {
+                return INVALID_FORMAT;
+            }
+        }
+
+        if (from == INVALID_FORMAT || to == INVALID_FORMAT || isUppercase(text.charAt(start)) || isUppercase(text.charAt(start + 2))) {
+            return INVALID_FORMAT;
+        }
+        else if (from == OUT_OF_BOUNDS || to == OUT_OF_BOUNDS) {
+            return OUT_OF_BOUNDS;
+        }
+
+        return from | (to << 6) | (promotion << 12);
+    }
+
+    /**
+     * @param coordinates A result from {@link #parseCoordinates}.
+     * @return The square the move starts on.
+     */
+    public static int coordinatesFrom(int coordinates) {
+        return coordinates & 0x3F;
+    }
+
+    /**
+     * @param coordinates A result from {@link #parseCoordinates}.
+     * @return The square the move ends on.
+     */
+    public static int coordinatesTo(int coordinates) {
+        return (coordinates >>> 6) & 0x3F;
+    }
+
+    /**
+     * @param coordinates A result from {@link #parseCoordinates}.
+     * @return The piece type a pawn is promoted to, or {@link ChessPiece#NONE} if none was given.
+     */
+    public static int coordinatesPromotion(int coordinates) {
+        return (coordinates >>> 12) & 0x7;
+    }
+
+    /**
+     * Reads a move in coordinate or standard algebraic notation and finds the legal move it stands for.
+     * Check signs and annotations at the end, like "+", "#", "!" and "?", are ignored.
+     * @param position The position the move is played in.
+     * @param moves A buffer of at least {@link MoveGenerator#MAX_MOVES} used for the legal moves.
+     * @return The packed move, or {@link #INVALID_FORMAT}, {@link #OUT_OF_BOUNDS},
+     * {@link #ILLEGAL_MOVE} or {@link #AMBIGUOUS_MOVE}.
+     */
+    public static int parseMove(Position position, CharSequence text, int start, int end, int[] moves) {
+        while (end > start && isAnnotation(text.charAt(end - 1))) {
+            end--;
+        }
+
+        if (end == start) {
+            return INVALID_FORMAT;
+        }
+
+        // Text that isn't coordinates, even off the board ones, may still be SAN, i.e. "R1e2".
+        int coordinates = parseCoordinates(text, start, end);
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+
+        if (coordinates >= 0) {
+            return findCoordinateMove(coordinates, moves, count);
+        }
+        else if (isCastling(text, start, end)) {
+            int file = end - start == 3 ? 6 : 2; // The king ends up on the g file or the c file.
+
+            for (int i = 0; i < count; i++) {
+                if (Move.flag(moves[i]) == Move.CASTLE && (Move.to(moves[i]) & 7) == file) {
+                    return moves[i];
+                }
+            }
+
+            return ILLEGAL_MOVE;
+        }
+
+        return findSanMove(text, start, end, moves, count);
+    }
+
+    /**
+     * @see #parseMove(Position, CharSequence, int, int, int[])
+     */
+    public static int parseMove(Position position, CharSequence text, int[] moves) {
+        return parseMove(position, text, 0, text.length(), moves);
+    }
+
+    private static int findCoordinateMove(int coordinates, int[] moves, int count) {
+        int from = coordinatesFrom(coordinates);
+        int to = coordinatesTo(coordinates);
+        int promotion = coordinatesPromotion(coordinates);
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotion(move) == promotion) {
+                return move;
+            }
+        }
+
+        return ILLEGAL_MOVE;
+    }
+
+    /**
+     * Matches a SAN move like "Nbd7" or "exd8=Q" against the legal moves.
+     */
+    private static int findSanMove(CharSequence text, int start, int end, int[] moves, int count) {
+        int promotion = ChessPiece.NONE;
+        if (end - start >= 3 && pieceType(text.charAt(end - 1)) != ChessPiece.NONE) {
+            promotion = pieceType(text.charAt(end - 1));
+            end -= text.charAt(end - 2) == '=' ? 2 : 1;
+        }
+
+        if (end - start < 2) {
+            return INVALID_FORMAT;
+        }
+
+        int to = parseSquare(text, end - 2, end);
+        if (isError(to)) {
+            return to;
+        }
+
+        int type = pieceType(text.charAt(start));
+        if (type == ChessPiece.NONE) {
+            type = ChessPiece.PAWN;
+        }
+        else {
+            start++;
+        }
+
+        // Whatever is left between the piece and the destination narrows down where it comes from.
+        int fromFile = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            }
+            else if (c >= '1' && c <= '8') {
+                fromRow = c - '1';
+            }
+            else if (c != 'x' && c != ':' && c != '-') {
+                return INVALID_FORMAT;
+            }
+        }
+
+        int found = ILLEGAL_MOVE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+
+            if (Move.to(move) == to
+                && ChessPiece.typeOf(Move.piece(move)) == type
+                && Move.promotion(move) == promotion
+                && (fromFile < 0 || (from & 7) == fromFile)
+                && (fromRow < 0 || (from >>> 3) == fromRow)) {
+                if (found != ILLEGAL_MOVE) {
+                    return AMBIGUOUS_MOVE;
+                }
+
+                found = move;
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * @return True for "O-O" and "O-O-O", written with either letter O or zeros.
+     */
+    private static boolean isCastling(CharSequence text, int start, int end) {
+        int length = end - start;
+        char o = text.charAt(start);
+
+        if ((length != 3 && length != 5) || (o != 'O' && o != '0')) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != ((i - start) % 2 == 0 ? o : '-')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The piece type for a SAN piece letter, or {@link ChessPiece#NONE} for anything else, including pawns.
+     */
+    private static int pieceType(char c) {
+        switch (c) {
+            case 'N': return ChessPiece.KNIGHT;
+            case 'B': return ChessPiece.BISHOP;
+            case 'R': return ChessPiece.ROOK;
+            case 'Q': return ChessPiece.QUEEN;
+            case 'K': return ChessPiece.KING;
+            default: return ChessPiece.NONE;
+        }
+    }
+
+    /**
+     * @return The piece type for a promotion letter in coordinate notation, which can be either case.
+     */
+    private static int promotionType(char c) {
+        switch (c | 0x20) {
+            case 'n': return ChessPiece.KNIGHT;
+            case 'b': return ChessPiece.BISHOP;
+            case 'r': return ChessPiece.ROOK;
+            case 'q': return ChessPiece.QUEEN;
+            default: return ChessPiece.NONE;
+        }
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isUppercase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAnnotation(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
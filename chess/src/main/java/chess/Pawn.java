@@ -0,0 +1,117 @@
+package chess;
+
+/**
+ * The pawn chess piece. Contains the calculation for its valid moves.
+ * @author Haris Mehuljic
+ */
+public class Pawn extends ChessPiece {
+
+    /**
+     * Creates a new chess piece
+     * @param name The name of the piece.
+     * @param symbol The symbol to represent the piece on the board printed to the console.
+     * @param black Whether or not the piece is black.
+     * @param rankPosition The horizontal (x) coordinate of the piece on the board grid.
+     * @param filePosition The vertical (y) coordinate of the piece on the board grid.
+     */
+    public Pawn(boolean black, int rankPosition, int filePosition) {
+        super("Pawn", "p", PAWN, black, rankPosition, filePosition);
+    }
+
+    @Override
+    public int calculateValidBoardMoves(Position position, int[] moves, int count) {
+        return generateMoves(position, getSquare(), moves, count);
+    }
+
+    /**
+     * Writes the moves of the pawn standing on a square into a move buffer. A pawn reaching
+     * the last row gets one move for each piece it can be promoted to, queen first, and en
+     * passant captures are included when the last move was a pawn moving two spaces.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param from The square the pawn is on.
+     * @param moves The buffer the packed moves are written into.
+     * @param count The number of moves already in the buffer.
+     * @return The new number of moves in the buffer.
+     */
+    public static int generateMoves(Position position, int from, int[] moves, int count) {
+        count = generateQuietMoves(position, from, moves, count);
+        return generateCaptures(position, from, moves, count);
+    }
+
+    /**
+     * Writes the moves of the pawn that don't capture or promote into a move buffer.
+     * @see #generateMoves(Position, int, int[], int)
+     */
+    public static int generateQuietMoves(Position position, int from, int[] moves, int count) {
+        int piece = position.pieceAt(from);
+        int color = colorOf(piece);
+        int forward = color == WHITE ? 8 : -8; // Moving one row up or down the board.
+        int startingRow = color == WHITE ? 1 : 6;
+        long empty = ~position.occupied();
+        int to = from + forward;
+        int lastRow = to >>> 3;
+
+        // Checking to see if the pawn is obstructed. Moving to the last row is a promotion, which isn't quiet.
+        if ((empty & (1L << to)) != 0 && lastRow != 0 && lastRow != 7) {
+            moves[count++] = Move.create(from, to, piece, NONE, NONE, Move.NORMAL);
+
+            // If the pawn is in its starting position and both squares are free, it can move two spaces.
+            if ((from >>> 3) == startingRow && (empty & (1L << (to + forward))) != 0) {
+                moves[count++] = Move.create(from, to + forward, piece, NONE, NONE, Move.DOUBLE_PUSH);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes the captures and promotions of the pawn into a move buffer, including en passant.
+     * @see #generateMoves(Position, int, int[], int)
+     */
+    public static int generateCaptures(Position position, int from, int[] moves, int count) {
+        int piece = position.pieceAt(from);
+        int color = colorOf(piece);
+        int to = from + (color == WHITE ? 8 : -8);
+        int lastRow = to >>> 3;
+
+        // Moving straight to the last row doesn't capture, but it changes the material just as much.
+        if ((lastRow == 0 || lastRow == 7) && position.pieceAt(to) == NONE) {
+            count = addPawnMove(from, to, piece, NONE, moves, count);
+        }
+
+        // Checking to see if there's a piece to capture on the diagonals
+        long captures = Attacks.pawn(color, from) & position.colorOccupancy(color ^ 1);
+
+        while (captures != 0) {
+            to = Long.numberOfTrailingZeros(captures);
+            count = addPawnMove(from, to, piece, position.pieceAt(to), moves, count);
+            captures &= captures - 1;
+        }
+
+        // A pawn that just moved two spaces can be captured as if it had only moved one.
+        int enPassant = position.enPassantSquare();
+        if (enPassant != Position.NO_SQUARE && (Attacks.pawn(color, from) & (1L << enPassant)) != 0) {
+            moves[count++] = Move.create(from, enPassant, piece, pieceCode(PAWN, color == WHITE), NONE, Move.EN_PASSANT);
+        }
+
+        return count;
+    }
+
+    /**
+     * Adds a single pawn move, or all four promotions if the pawn is reaching the last row.
+     */
+    private static int addPawnMove(int from, int to, int piece, int captured, int[] moves, int count) {
+        int row = to >>> 3;
+
+        if (row == 0 || row == 7) {
+            for (int promotion = QUEEN; promotion >= KNIGHT; promotion--) {
+                moves[count++] = Move.create(from, to, piece, captured, promotion, Move.NORMAL);
+            }
+        }
+        else {
+            moves[count++] = Move.create(from, to, piece, captured, NONE, Move.NORMAL);
+        }
+
+        return count;
+    }
+}
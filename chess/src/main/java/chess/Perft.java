@@ -0,0 +1,204 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A perft (performance test) driver. Perft counts every sequence of legal moves up to a
+ * certain depth from a position. The counts for many positions are well known, so comparing
+ * against them checks that the move generators for every piece are correct, and the time it
+ * takes gives a measure of how fast moves are generated and made.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.Perft                 Runs the reference suite up to depth 4
+ *  java chess.Perft suite [depth]   Runs the reference suite up to the given depth
+ *  java chess.Perft depth [fen]     Counts the moves from a position (the starting position by default),
+ *                                   with the count for each first move listed separately
+ *  java chess.Perft hash [depth]    Walks the reference suite and checks the incrementally updated hashes and
+ *                                   piece-square total against ones worked out from scratch at every node
+ * </pre>
+ * When running the suite or checking hashes, the program exits with status 1 if anything is wrong.
+ * @see https://www.chessprogramming.org/Perft_Results
+ * @author Haris Mehuljic
+ */
+public class Perft {
+    public static final String STARTING_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Reference positions and their known move counts, starting at depth 1.
+    static final String[] SUITE_FENS = {
+        STARTING_FEN,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+    private static final long[][] SUITE_COUNTS = {
+        {20, 400, 8902, 197281, 4865609, 119060324},
+        {48, 2039, 97862, 4085603, 193690690},
+        {14, 191, 2812, 43238, 674624, 11030083},
+        {6, 264, 9467, 422333, 15833292},
+        {44, 1486, 62379, 2103487, 89941194},
+        {46, 2079, 89890, 3894594, 164075551}
+    };
+
+    private static final int MAX_DEPTH = 64;
+
+    private final int[][] moveBuffers = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES]; // One buffer for each ply, reused for every node.
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].equals("suite")) {
+            int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+            System.exit(new Perft().runSuite(depth) ? 0 : 1);
+        }
+        else if (args[0].equals("hash")) {
+            int depth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+            System.exit(new Perft().checkSuiteHashes(depth) ? 0 : 1);
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : STARTING_FEN;
+        new Perft().divide(Position.fromFen(fen), depth);
+    }
+
+    /**
+     * Counts the leaf nodes of the move tree below a position.
+     * @param position The position to count from. It's the same once counting is done.
+     * @param depth The number of moves to look ahead.
+     * @return The number of move sequences of that length.
+     */
+    public long perft(Position position, int depth) {
+        return perft(position, depth, 0);
+    }
+
+    private long perft(Position position, int depth, int ply) {
+        int[] moves = moveBuffers[ply];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+
+        // At the last ply, the moves themselves are the leaf nodes, so they don't need to be made.
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            nodes += perft(position, depth - 1, ply + 1);
+            position.unmakeMove();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Prints the count for each first move separately, which helps find which move a wrong total comes from.
+     * @param position The position to count from.
+     * @param depth The number of moves to look ahead.
+     * @return The total count.
+     */
+    public long divide(Position position, int depth) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        long total = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            long nodes = depth > 1 ? perft(position, depth - 1, 1) : 1;
+            position.unmakeMove();
+
+            System.out.println(Move.toString(moves[i]) + ": " + nodes);
+            total += nodes;
+        }
+
+        System.out.println("\nNodes: " + total + report(total, System.nanoTime() - start));
+        return total;
+    }
+
+    /**
+     * Runs every reference position up to a depth and compares the counts.
+     * @param maxDepth The deepest depth to check. Positions with fewer known counts stop at their last one.
+     * @return True if every count matched.
+     */
+    public boolean runSuite(int maxDepth) {
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        for (int i = 0; i < SUITE_FENS.length; i++) {
+            Position position = Position.fromFen(SUITE_FENS[i]);
+            int depth = Math.min(maxDepth, SUITE_COUNTS[i].length);
+            long expected = SUITE_COUNTS[i][depth - 1];
+
+            long start = System.nanoTime();
+            long nodes = perft(position, depth);
+            long time = System.nanoTime() - start;
+
+            totalNodes += nodes;
+            totalTime += time;
+            allPassed &= nodes == expected;
+
+            System.out.println((nodes == expected ? "PASS " : "FAIL ") + SUITE_FENS[i]);
+            System.out.println("     depth " + depth + ": " + nodes + " (expected " + expected + ")" + report(nodes, time));
+        }
+
+        System.out.println("\nTotal: " + totalNodes + " nodes" + report(totalNodes, totalTime));
+        return allPassed;
+    }
+
+    /**
+     * Walks every reference position up to a depth, checking the hashes and the piece-square
+     * total at every node.
+     * @param depth The number of moves to look ahead.
+     * @return True if both always matched.
+     */
+    public boolean checkSuiteHashes(int depth) {
+        long mismatches = 0;
+
+        for (String fen : SUITE_FENS) {
+            long found = countHashMismatches(Position.fromFen(fen), depth, 0);
+            mismatches += found;
+            System.out.println((found == 0 ? "PASS " : "FAIL ") + fen + (found == 0 ? "" : " (" + found + " wrong hashes)"));
+        }
+
+        return mismatches == 0;
+    }
+
+    /**
+     * @return The number of nodes below the position where a hash or the piece-square total doesn't
+     * match one worked out from scratch.
+     */
+    private long countHashMismatches(Position position, int depth, int ply) {
+        boolean matches = position.hash() == position.computeHash() && position.pawnKey() == position.computePawnKey()
+            && position.score() == position.computeScore();
+        long mismatches = matches ? 0 : 1;
+
+        if (depth == 0) {
+            return mismatches;
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+
+        for (int i = 0; i < count; i++) {
+            long before = position.hash();
+            position.makeMove(moves[i]);
+            mismatches += countHashMismatches(position, depth - 1, ply + 1);
+            position.unmakeMove();
+
+            if (position.hash() != before) { // Taking the move back has to give the same hash as before it was made.
+                mismatches++;
+            }
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * @return The time taken and nodes per second, formatted for the output.
+     */
+    private static String report(long nodes, long nanos) {
+        long millis = Math.max(1, nanos / 1000000);
+        return " in " + millis + " ms, " + (nodes * 1000 / millis) + " nodes/s";
+    }
+}
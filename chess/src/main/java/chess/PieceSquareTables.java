@@ -0,0 +1,176 @@
+package chess;
+
+/**
+ * The values of pieces for the evaluation, depending on the square they stand on. Each piece
+ * has a material value plus a bonus or penalty for its square, e.g. knights are worth more
+ * in the center and pawns are worth more the further they've advanced.
+ *
+ * There are separate values for the middlegame and the endgame, since a king should hide in
+ * the corner while there are still queens and rooks around, but walk to the center once
+ * they're gone. The evaluation blends the two according to how much material is left.
+ *
+ * Both values are packed into one int, with the endgame value in the upper 16 bits and the
+ * middlegame value in the lower 16, so {@link Position} can keep both up to date with one
+ * addition whenever a piece is placed, removed or moved. Black's values are the negated
+ * values of white's mirrored square, so the sum over all pieces is the score for white.
+ * @see https://www.chessprogramming.org/Simplified_Evaluation_Function
+ * @see https://www.chessprogramming.org/Tapered_Eval
+ * @author Haris Mehuljic
+ */
+public final class PieceSquareTables {
+    // Indexed by piece type.
+    public static final int[] MIDGAME_VALUES = {0, 100, 320, 330, 500, 900, 0};
+    public static final int[] ENDGAME_VALUES = {0, 120, 300, 320, 530, 950, 0};
+
+    // How much each piece type counts towards the game phase. The starting position has the full MAX_PHASE.
+    public static final int[] PHASE_WEIGHTS = {0, 0, 1, 1, 2, 4, 0};
+    public static final int MAX_PHASE = 24;
+
+    // The tables below are laid out the way the board is printed for white, so the first row is row 8.
+    private static final int[] PAWN_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         15,  15,  15,  15,  15,  15,  15,  15,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] ROOK_ENDGAME = new int[64]; // Rooks are just as good anywhere once the board opens up.
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] KING_MIDGAME = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // Indexed by piece type.
+    private static final int[][] MIDGAME_TABLES = {null, PAWN_MIDGAME, KNIGHT, BISHOP, ROOK_MIDGAME, QUEEN, KING_MIDGAME};
+    private static final int[][] ENDGAME_TABLES = {null, PAWN_ENDGAME, KNIGHT, BISHOP, ROOK_ENDGAME, QUEEN, KING_ENDGAME};
+
+    private static final int[][] SCORES = new int[16][64]; // Indexed by piece code and square.
+
+    static {
+        for (int type = ChessPiece.PAWN; type <= ChessPiece.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                // Flipping the row turns a square number into an index into the tables above for white, and black's row is already flipped.
+                int midgame = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][square ^ 56];
+                int endgame = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][square ^ 56];
+                SCORES[ChessPiece.pieceCode(type, false)][square] = pack(midgame, endgame);
+
+                midgame = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][square];
+                endgame = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][square];
+                SCORES[ChessPiece.pieceCode(type, true)][square] = -pack(midgame, endgame);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @param piece A piece code.
+     * @param square The square the piece is on.
+     * @return The packed middlegame and endgame value of that piece on that square, for white.
+     */
+    public static int score(int piece, int square) {
+        return SCORES[piece][square];
+    }
+
+    /**
+     * @param piece A piece code.
+     * @return How much the piece counts towards the game phase.
+     */
+    public static int phase(int piece) {
+        return PHASE_WEIGHTS[ChessPiece.typeOf(piece)];
+    }
+
+    /**
+     * Packs a middlegame and endgame value into one int. Packed values can be added and
+     * subtracted as normal ints, as long as each half stays within the range of a short.
+     */
+    public static int pack(int midgame, int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    /**
+     * @param score A packed score.
+     * @return The middlegame half.
+     */
+    public static int midgame(int score) {
+        return (short) score;
+    }
+
+    /**
+     * @param score A packed score.
+     * @return The endgame half. Adding 0x8000 first undoes the borrow from a negative middlegame half.
+     */
+    public static int endgame(int score) {
+        return (short) ((score + 0x8000) >> 16);
+    }
+}
@@ -0,0 +1,950 @@
+package chess;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A bitboard representation of the pieces on the board. Every piece type of every color
+ * has its own 64-bit board where bit n is set when that piece stands on square n, and
+ * there are occupancy masks for each color and for the whole board. A small array of
+ * piece codes indexed by square is kept alongside the bitboards so that finding the piece
+ * on a given square doesn't require checking every board.
+ *
+ * Squares are numbered from 0 (A1) to 63 (H8), going from left to right along each row
+ * starting at the bottom of the board. Piece codes are the ones defined in {@link ChessPiece}.
+ *
+ * Moves are made and taken back with {@link #makeMove(int)} and {@link #unmakeMove()}. Each
+ * move pushes a small record of the state it can't undo by itself (castling rights, the en
+ * passant square, the halfmove clock and the hash) onto a fixed-size stack, so a search can
+ * walk through moves and back again without copying the position.
+ *
+ * The position also keeps a Zobrist hash (see {@link Zobrist}) which is updated with a few
+ * XORs whenever a piece is placed, removed or moved, so it never needs to be worked out
+ * from scratch. The hashes from before each move stay on the undo stack, so a repeated
+ * position is found by comparing hashes. Captures and pawn moves can never be undone, so
+ * only the positions since the last one, which the halfmove clock counts, need comparing.
+ *
+ * In the same way, it keeps a running total of the piece-square values of every piece (see
+ * {@link PieceSquareTables}) and of the game phase, so evaluating a position doesn't need
+ * to look at every piece on the board.
+ * @author Haris Mehuljic
+ */
+public class Position {
+    private final long[] pieceBoards = new long[16]; // Indexed by piece code, so codes 0, 7, 8 and 15 are never used.
+    private final long[] colorBoards = new long[2];
+    private long occupied;
+    private final byte[] squares = new byte[64];
+
+    // Castling rights, one bit for each side of the board for each color.
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    public static final int NO_SQUARE = -1;
+    public static final int MAX_HISTORY = 2048; // The most moves that can be made before any are taken back.
+    public static final int ENCODED_SIZE = 32; // The number of bytes a position takes up in its binary encoding.
+
+    private static final long BACK_ROWS = 0xFF000000000000FFL; // The first and last rows, which pawns can never be on.
+
+    // The castling rights that are kept when a piece moves from or to each square. Moving the king or a rook loses them.
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[7] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[63] &= ~BLACK_KINGSIDE;
+    }
+
+    private int sideToMove = ChessPiece.WHITE;
+    private int castlingRights;
+    private int enPassantSquare = NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash = Zobrist.castling(0);
+    private long pawnKey; // A hash of only the pawns, see Zobrist#pawn.
+    private int score; // The packed middlegame and endgame piece-square total, for white.
+    private int phase;
+
+    // The undo stack. Each made move keeps the move itself and the state from before it was made.
+    private final int[] moveHistory = new int[MAX_HISTORY];
+    private final long[] stateHistory = new long[MAX_HISTORY];
+    private final long[] hashHistory = new long[MAX_HISTORY];
+    private int historySize;
+
+    /**
+     * Creates an empty position with no pieces on it.
+     */
+    public Position() {
+    }
+
+    /**
+     * Creates a copy of another position, including its undo stack, so moves made before the
+     * copy was taken can still be taken back on it.
+     * @param other The position to copy.
+     */
+    public Position(Position other) {
+        this(other, other.historySize);
+    }
+
+    /**
+     * Creates a copy of another position with only the end of its undo stack, so that there's
+     * room for more moves on the copy, i.e. for a search. Repetitions are still found as long as
+     * every move since the last capture or pawn move is kept, and the halfmove clock says how
+     * many of those there are.
+     * @param other The position to copy.
+     * @param keptHistory The most moves to keep on the undo stack. Older ones can't be taken back on the copy.
+     */
+    public Position(Position other, int keptHistory) {
+        int kept = Math.min(other.historySize, Math.max(0, keptHistory));
+        int oldest = other.historySize - kept;
+
+        System.arraycopy(other.pieceBoards, 0, pieceBoards, 0, pieceBoards.length);
+        System.arraycopy(other.colorBoards, 0, colorBoards, 0, colorBoards.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        System.arraycopy(other.moveHistory, oldest, moveHistory, 0, kept);
+        System.arraycopy(other.stateHistory, oldest, stateHistory, 0, kept);
+        System.arraycopy(other.hashHistory, oldest, hashHistory, 0, kept);
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+        pawnKey = other.pawnKey;
+        score = other.score;
+        phase = other.phase;
+        historySize = kept;
+    }
+
+    /**
+     * Creates a position with every piece placed at its starting square.
+     * @return The starting position.
+     */
+    public static Position startingPosition() {
+        Position position = new Position();
+        int[] backRow = {ChessPiece.ROOK, ChessPiece.KNIGHT, ChessPiece.BISHOP, ChessPiece.QUEEN,
+                         ChessPiece.KING, ChessPiece.BISHOP, ChessPiece.KNIGHT, ChessPiece.ROOK};
+
+        for (int i = 0; i < 8; i++) {
+            position.putPiece(ChessPiece.pieceCode(backRow[i], false), i);
+            position.putPiece(ChessPiece.pieceCode(ChessPiece.PAWN, false), 8 + i);
+            position.putPiece(ChessPiece.pieceCode(ChessPiece.PAWN, true), 48 + i);
+            position.putPiece(ChessPiece.pieceCode(backRow[i], true), 56 + i);
+        }
+
+        position.castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        position.hash = position.computeHash();
+        return position;
+    }
+
+    /**
+     * Creates a position from Forsyth-Edwards Notation (FEN), the standard one-line description
+     * of a chess position, i.e. "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1".
+     * The clocks at the end can be left out.
+     * @param fen The FEN string.
+     * @return The position it describes.
+     * @throws IllegalArgumentException If the string isn't valid FEN.
+     */
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        position.loadFen(fen);
+        return position;
+    }
+
+    /**
+     * Replaces this position with one described in FEN. Reusing one position this way is much
+     * faster than creating a new one for each FEN when reading many of them, since the undo
+     * stack doesn't need to be allocated again.
+     * @param fen The FEN string.
+     * @throws IllegalArgumentException If the string isn't valid FEN, in which case the position should not be used.
+     * @see #fromFen(String)
+     */
+    public void loadFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        clear();
+
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+
+        // The pieces are listed row by row from the top of the board, with digits counting empty squares.
+        int x = 0;
+        int y = 7;
+        for (int i = 0; i < fields[0].length(); i++) {
+            char c = fields[0].charAt(i);
+            int type = "pnbrqk".indexOf(Character.toLowerCase(c)) + 1;
+
+            if (c == '/' && x == 8 && y > 0) {
+                x = 0;
+                y--;
+            }
+            else if (c >= '1' && c <= '8' && x + (c - '0') <= 8) {
+                x += c - '0';
+            }
+            else if (type != ChessPiece.NONE && x < 8) {
+                putPiece(ChessPiece.pieceCode(type, Character.isLowerCase(c)), y * 8 + x);
+                x++;
+            }
+            else {
+                throw new IllegalArgumentException("Invalid piece placement in FEN: " + fen);
+            }
+        }
+
+        if (x != 8 || y != 0) {
+            throw new IllegalArgumentException("FEN needs 8 rows of 8 squares: " + fen);
+        }
+
+        // Positions that can't come up in a game would break the move generators and the search.
+        if (Long.bitCount(pieces(ChessPiece.KING, ChessPiece.WHITE)) != 1 || Long.bitCount(pieces(ChessPiece.KING, ChessPiece.BLACK)) != 1) {
+            throw new IllegalArgumentException("FEN needs exactly one king for each side: " + fen);
+        }
+        else if (((pieces(ChessPiece.PAWN, ChessPiece.WHITE) | pieces(ChessPiece.PAWN, ChessPiece.BLACK)) & BACK_ROWS) != 0) {
+            throw new IllegalArgumentException("FEN has a pawn on the first or last row: " + fen);
+        }
+
+        if (fields[1].equals("w") || fields[1].equals("b")) {
+            sideToMove = fields[1].equals("w") ? ChessPiece.WHITE : ChessPiece.BLACK;
+        }
+        else {
+            throw new IllegalArgumentException("Invalid side to move in FEN: " + fen);
+        }
+
+        for (int i = 0; i < fields[2].length() && !fields[2].equals("-"); i++) {
+            int right = "KQkq".indexOf(fields[2].charAt(i));
+
+            if (right < 0) {
+                throw new IllegalArgumentException("Invalid castling rights in FEN: " + fen);
+            }
+
+            castlingRights |= 1 << right; // The bits are in the same order as the letters.
+        }
+
+        for (int right = 0; right < 4; right++) {
+            if ((castlingRights & (1 << right)) != 0 && !castlingPiecesInPlace(right)) {
+                throw new IllegalArgumentException("FEN has castling rights without the king and rook on their starting squares: " + fen);
+            }
+        }
+
+        if (!fields[3].equals("-")) {
+            int file = fields[3].charAt(0) - 'a';
+            int row = fields[3].length() == 2 ? fields[3].charAt(1) - '1' : -1;
+
+            if (file < 0 || file > 7 || row < 0 || row > 7) {
+                throw new IllegalArgumentException("Invalid en passant square in FEN: " + fen);
+            }
+
+            // The square has to be the empty one a pawn of the other side just passed over, with the pawn right behind it.
+            int us = sideToMove;
+            int square = row * 8 + file;
+            int pawnSquare = us == ChessPiece.WHITE ? square - 8 : square + 8;
+            if (row != (us == ChessPiece.WHITE ? 5 : 2) || squares[square] != ChessPiece.NONE
+                || squares[pawnSquare] != ChessPiece.pieceCode(ChessPiece.PAWN, us == ChessPiece.WHITE)) {
+                throw new IllegalArgumentException("FEN has an en passant square no pawn has just passed over: " + fen);
+            }
+
+            // Like in makeMove(), the square is only kept if a pawn can actually capture on it.
+            if ((Attacks.pawn(us ^ 1, square) & pieces(ChessPiece.PAWN, us)) != 0) {
+                enPassantSquare = square;
+            }
+        }
+
+        try {
+            halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid move clocks in FEN: " + fen);
+        }
+
+        if (isKingAttacked(sideToMove ^ 1)) {
+            throw new IllegalArgumentException("FEN has the side that just moved in check: " + fen);
+        }
+
+        hash = computeHash();
+    }
+
+    /**
+     * @param right One of the castling rights bits, counted from 0 in the order "KQkq".
+     * @return True if the king and the rook that castling right needs are on their starting squares.
+     */
+    private boolean castlingPiecesInPlace(int right) {
+        boolean black = right >= 2;
+        int row = black ? 56 : 0;
+        int rookSquare = row + (right % 2 == 0 ? 7 : 0);
+
+        return squares[row + 4] == ChessPiece.pieceCode(ChessPiece.KING, black)
+            && squares[rookSquare] == ChessPiece.pieceCode(ChessPiece.ROOK, black);
+    }
+
+    /**
+     * Writes the position in Forsyth-Edwards Notation (FEN).
+     * @return The FEN string, which {@link #fromFen(String)} turns back into the same position.
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+
+            for (int x = 0; x < 8; x++) {
+                int piece = squares[y * 8 + x];
+
+                if (piece == ChessPiece.NONE) {
+                    empty++;
+                    continue;
+                }
+
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+
+                char symbol = "pnbrqk".charAt(ChessPiece.typeOf(piece) - 1);
+                fen.append(ChessPiece.colorOf(piece) == ChessPiece.WHITE ? Character.toUpperCase(symbol) : symbol);
+            }
+
+            if (empty > 0) {
+                fen.append(empty);
+            }
+
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(sideToMove == ChessPiece.WHITE ? " w " : " b ");
+
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+
+        for (int right = 0; right < 4; right++) {
+            if ((castlingRights & (1 << right)) != 0) {
+                fen.append("KQkq".charAt(right));
+            }
+        }
+
+        fen.append(' ').append(enPassantSquare == NO_SQUARE ? "-" : Move.squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+
+        return fen.toString();
+    }
+
+    /**
+     * Writes the position into a buffer in a fixed-size binary encoding of
+     * {@link #ENCODED_SIZE} bytes, without creating any objects. The undo stack isn't included.
+     * <pre>
+     *  bytes  0-7   the occupied squares, as a bitboard
+     *  bytes  8-23  the piece code on each occupied square, 4 bits each, from the lowest square up
+     *  byte  24     the side to move in bit 0 and the castling rights in bits 1-4
+     *  byte  25     the en passant square plus one, so that no square is 0
+     *  bytes 26-27  the halfmove clock
+     *  bytes 28-29  the fullmove number
+     *  bytes 30-31  unused, always 0
+     * </pre>
+     * Only 32 pieces fit, which is as many as a game of chess can have.
+     * @param buffer The buffer to write to, starting at its current position, which is moved past the encoding.
+     * @throws IllegalArgumentException If there are more than 32 pieces on the board.
+     */
+    public void encode(ByteBuffer buffer) {
+        if (Long.bitCount(occupied) > 32) {
+            throw new IllegalArgumentException("Only positions with up to 32 pieces can be encoded.");
+        }
+
+        buffer.putLong(occupied);
+
+        long pieces = occupied;
+        for (int i = 0; i < 4; i++) { // Each int holds the codes of the next 8 pieces.
+            int codes = 0;
+
+            for (int nibble = 0; nibble < 8 && pieces != 0; nibble++, pieces &= pieces - 1) {
+                codes |= squares[Long.numberOfTrailingZeros(pieces)] << (nibble * 4);
+            }
+
+            buffer.putInt(codes);
+        }
+
+        buffer.put((byte) (sideToMove | (castlingRights << 1)));
+        buffer.put((byte) (enPassantSquare + 1));
+        buffer.putShort((short) halfmoveClock);
+        buffer.putShort((short) fullmoveNumber);
+        buffer.putShort((short) 0);
+    }
+
+    /**
+     * Replaces this position with one read from its binary encoding, so a single position can
+     * be reused for reading any number of them. The undo stack is emptied.
+     * @param buffer The buffer to read from, starting at its current position, which is moved past the encoding.
+     * @throws IllegalArgumentException If the encoding holds an invalid piece code.
+     * @see #encode(ByteBuffer)
+     */
+    public void decode(ByteBuffer buffer) {
+        clear();
+        long pieces = buffer.getLong();
+
+        for (int i = 0; i < 4; i++) {
+            int codes = buffer.getInt();
+
+            for (int nibble = 0; nibble < 8 && pieces != 0; nibble++, pieces &= pieces - 1) {
+                int piece = (codes >>> (nibble * 4)) & 0xF;
+                int type = ChessPiece.typeOf(piece);
+
+                if (type < ChessPiece.PAWN || type > ChessPiece.KING) {
+                    throw new IllegalArgumentException("Invalid piece code in encoded position: " + piece);
+                }
+
+                putPiece(piece, Long.numberOfTrailingZeros(pieces));
+            }
+        }
+
+        int flags = buffer.get();
+        sideToMove = flags & 1;
+        castlingRights = (flags >>> 1) & 0xF;
+        enPassantSquare = (buffer.get() & 0xFF) - 1;
+        halfmoveClock = buffer.getShort() & 0xFFFF;
+        fullmoveNumber = buffer.getShort() & 0xFFFF;
+        buffer.getShort();
+
+        hash = computeHash();
+    }
+
+    /**
+     * Places a piece on an empty square.
+     * @param piece The piece code of the piece being placed.
+     * @param square The square to place it on.
+     */
+    public void putPiece(int piece, int square) {
+        long bit = 1L << square;
+        pieceBoards[piece] |= bit;
+        colorBoards[ChessPiece.colorOf(piece)] |= bit;
+        occupied |= bit;
+        squares[square] = (byte) piece;
+        hash ^= Zobrist.piece(piece, square);
+        pawnKey ^= Zobrist.pawn(piece, square);
+        score += PieceSquareTables.score(piece, square);
+        phase += PieceSquareTables.phase(piece);
+    }
+
+    /**
+     * Removes whatever piece is on the square.
+     * @param square The square to clear.
+     * @return The piece code of the removed piece, or {@link ChessPiece#NONE} if the square was empty.
+     */
+    public int removePiece(int square) {
+        int piece = squares[square];
+
+        if (piece != ChessPiece.NONE) {
+            long bit = 1L << square;
+            pieceBoards[piece] &= ~bit;
+            colorBoards[ChessPiece.colorOf(piece)] &= ~bit;
+            occupied &= ~bit;
+            squares[square] = ChessPiece.NONE;
+            hash ^= Zobrist.piece(piece, square);
+            pawnKey ^= Zobrist.pawn(piece, square);
+            score -= PieceSquareTables.score(piece, square);
+            phase -= PieceSquareTables.phase(piece);
+        }
+
+        return piece;
+    }
+
+    /**
+     * Moves a piece to an empty square.
+     * @param from The square the piece is currently on.
+     * @param to The square the piece is moving to.
+     */
+    public void movePiece(int from, int to) {
+        int piece = squares[from];
+        long fromTo = (1L << from) | (1L << to); // Flipping both bits moves the piece in a single step.
+
+        pieceBoards[piece] ^= fromTo;
+        colorBoards[ChessPiece.colorOf(piece)] ^= fromTo;
+        occupied ^= fromTo;
+        squares[from] = ChessPiece.NONE;
+        squares[to] = (byte) piece;
+        hash ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        pawnKey ^= Zobrist.pawn(piece, from) ^ Zobrist.pawn(piece, to);
+        score += PieceSquareTables.score(piece, to) - PieceSquareTables.score(piece, from);
+    }
+
+    /**
+     * Removes every piece from the board and resets the rest of the state to the start of a game.
+     */
+    public void clear() {
+        Arrays.fill(pieceBoards, 0L);
+        Arrays.fill(colorBoards, 0L);
+        Arrays.fill(squares, (byte) ChessPiece.NONE);
+        occupied = 0L;
+        sideToMove = ChessPiece.WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        historySize = 0;
+        hash = computeHash();
+        pawnKey = 0;
+        score = 0;
+        phase = 0;
+    }
+
+    /**
+     * Makes a move for the side to move, including the extra steps for castling, en passant
+     * and promotions. The move can be taken back with {@link #unmakeMove()}.
+     * @param move A packed move generated for this position.
+     */
+    public void makeMove(int move) {
+        if (historySize == MAX_HISTORY) {
+            throw new IllegalStateException("Too many moves have been made without taking any back.");
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = Move.piece(move);
+        int captured = Move.captured(move);
+        int flag = Move.flag(move);
+
+        // Saving everything that can't be worked out again from the move itself.
+        moveHistory[historySize] = move;
+        stateHistory[historySize] = packState(captured);
+        hashHistory[historySize] = hash;
+        historySize++;
+
+        if (flag == Move.EN_PASSANT) {
+            removePiece(to + (sideToMove == ChessPiece.WHITE ? -8 : 8)); // The captured pawn is behind the destination.
+        }
+        else if (captured != ChessPiece.NONE) {
+            removePiece(to);
+        }
+
+        movePiece(from, to);
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            putPiece(ChessPiece.pieceCode(Move.promotion(move), sideToMove == ChessPiece.BLACK), to);
+        }
+        else if (flag == Move.CASTLE) {
+            // The rook jumps to the other side of the king.
+            if (to > from) {
+                movePiece(to + 1, to - 1);
+            }
+            else {
+                movePiece(to - 2, to + 1);
+            }
+        }
+
+        // The halfmove clock counts moves since the last capture or pawn move.
+        if (captured != ChessPiece.NONE || ChessPiece.typeOf(piece) == ChessPiece.PAWN) {
+            halfmoveClock = 0;
+        }
+        else {
+            halfmoveClock++;
+        }
+
+        // The old en passant square and castling rights are XORed out of the hash before the new ones go in.
+        if (enPassantSquare != NO_SQUARE) {
+            hash ^= Zobrist.enPassant(enPassantSquare);
+        }
+
+        enPassantSquare = NO_SQUARE;
+
+        /* The en passant square is only kept when an enemy pawn is next to the pawn that moved
+         * two spaces, so positions that only differ by a capture nobody can make get the same hash.
+         */
+        if (flag == Move.DOUBLE_PUSH && (Attacks.pawn(sideToMove, (from + to) / 2) & pieces(ChessPiece.PAWN, sideToMove ^ 1)) != 0) {
+            enPassantSquare = (from + to) / 2;
+            hash ^= Zobrist.enPassant(enPassantSquare);
+        }
+
+        hash ^= Zobrist.castling(castlingRights);
+        castlingRights &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        hash ^= Zobrist.castling(castlingRights);
+
+        if (sideToMove == ChessPiece.BLACK) {
+            fullmoveNumber++;
+        }
+
+        sideToMove ^= 1;
+        hash ^= Zobrist.side();
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        historySize--;
+        int move = moveHistory[historySize];
+        long state = stateHistory[historySize];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+
+        sideToMove ^= 1;
+
+        if (sideToMove == ChessPiece.BLACK) {
+            fullmoveNumber--;
+        }
+
+        if (Move.isPromotion(move)) {
+            removePiece(to);
+            putPiece(Move.piece(move), to);
+        }
+        else if (flag == Move.CASTLE) {
+            if (to > from) {
+                movePiece(to - 1, to + 1);
+            }
+            else {
+                movePiece(to + 1, to - 2);
+            }
+        }
+
+        movePiece(to, from);
+
+        if (flag == Move.EN_PASSANT) {
+            putPiece(Move.captured(move), to + (sideToMove == ChessPiece.WHITE ? -8 : 8));
+        }
+        else if (Move.isCapture(move)) {
+            putPiece(Move.captured(move), to);
+        }
+
+        unpackState(state);
+        hash = hashHistory[historySize]; // Putting the pieces back changed the hash, so the saved one is restored.
+    }
+
+    /**
+     * Packs the state that a move can't undo by itself into a single long for the undo stack.
+     * <pre>
+     *  bits  0-3   the captured piece code
+     *  bits  4-7   the castling rights
+     *  bits  8-14  the en passant square plus one, so that no square is 0
+     *  bits 16-31  the halfmove clock
+     * </pre>
+     */
+    private long packState(int captured) {
+        return captured | (castlingRights << 4) | ((enPassantSquare + 1) << 8) | ((long) halfmoveClock << 16);
+    }
+
+    /**
+     * Restores the state saved by {@link #packState(int)}.
+     */
+    private void unpackState(long state) {
+        castlingRights = (int) (state >>> 4) & 0xF;
+        enPassantSquare = ((int) (state >>> 8) & 0x7F) - 1;
+        halfmoveClock = (int) (state >>> 16) & 0xFFFF;
+    }
+
+    /**
+     * Checks if any piece of a color attacks a square. The square is attacked if a piece of
+     * the same type standing on it could capture that piece, which lets the attack tables
+     * answer this with one lookup per piece type.
+     * @param square The square to check.
+     * @param byColor The color of the attacking pieces.
+     * @return True if the square is attacked.
+     */
+    public boolean isSquareAttacked(int square, int byColor) {
+        long queens = pieces(ChessPiece.QUEEN, byColor);
+
+        return (Attacks.pawn(byColor ^ 1, square) & pieces(ChessPiece.PAWN, byColor)) != 0
+            || (Attacks.knight(square) & pieces(ChessPiece.KNIGHT, byColor)) != 0
+            || (Attacks.king(square) & pieces(ChessPiece.KING, byColor)) != 0
+            || (Attacks.bishop(square, occupied) & (pieces(ChessPiece.BISHOP, byColor) | queens)) != 0
+            || (Attacks.rook(square, occupied) & (pieces(ChessPiece.ROOK, byColor) | queens)) != 0;
+    }
+
+    /**
+     * Finds every piece of either color that attacks a square, as if only the given squares
+     * were occupied. Leaving out pieces that have already been traded off on the square lets
+     * sliding pieces behind them show up as attackers.
+     * @param square The square to check.
+     * @param occupied The squares to treat as occupied.
+     * @return The bitboard of the attacking pieces.
+     */
+    public long attackersTo(int square, long occupied) {
+        long diagonal = bothColors(ChessPiece.BISHOP) | bothColors(ChessPiece.QUEEN);
+        long straight = bothColors(ChessPiece.ROOK) | bothColors(ChessPiece.QUEEN);
+
+        return ((Attacks.pawn(ChessPiece.BLACK, square) & pieces(ChessPiece.PAWN, ChessPiece.WHITE))
+            | (Attacks.pawn(ChessPiece.WHITE, square) & pieces(ChessPiece.PAWN, ChessPiece.BLACK))
+            | (Attacks.knight(square) & bothColors(ChessPiece.KNIGHT))
+            | (Attacks.king(square) & bothColors(ChessPiece.KING))
+            | (Attacks.bishop(square, occupied) & diagonal)
+            | (Attacks.rook(square, occupied) & straight)) & occupied;
+    }
+
+    /**
+     * @return The bitboard of every piece of a type, whatever its color.
+     */
+    private long bothColors(int type) {
+        return pieceBoards[type] | pieceBoards[type | 8];
+    }
+
+    /**
+     * @param square The square to look at.
+     * @return The piece code of the piece on the square, or {@link ChessPiece#NONE} if it is empty.
+     */
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @param piece A piece code.
+     * @return The bitboard of every square holding that piece.
+     */
+    public long pieces(int piece) {
+        return pieceBoards[piece];
+    }
+
+    /**
+     * @param type A piece type.
+     * @param color The color of the pieces.
+     * @return The bitboard of every square holding a piece of that type and color.
+     */
+    public long pieces(int type, int color) {
+        return pieceBoards[type | (color << 3)];
+    }
+
+    /**
+     * @param color The color of the pieces.
+     * @return The bitboard of every square holding a piece of that color.
+     */
+    public long colorOccupancy(int color) {
+        return colorBoards[color];
+    }
+
+    /**
+     * @return The bitboard of every occupied square.
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @param color The color of the king.
+     * @return True if that color's king is attacked.
+     */
+    public boolean isKingAttacked(int color) {
+        return isSquareAttacked(Long.numberOfTrailingZeros(pieces(ChessPiece.KING, color)), color ^ 1);
+    }
+
+    /**
+     * Works out the hash of the position from scratch, the slow way. It should always be the
+     * same as {@link #hash()}, which makes it useful for checking the incremental updates.
+     * @return The Zobrist hash of the position.
+     */
+    public long computeHash() {
+        long key = Zobrist.castling(castlingRights);
+
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            key ^= Zobrist.piece(squares[square], square);
+        }
+
+        if (enPassantSquare != NO_SQUARE) {
+            key ^= Zobrist.enPassant(enPassantSquare);
+        }
+
+        if (sideToMove == ChessPiece.BLACK) {
+            key ^= Zobrist.side();
+        }
+
+        return key;
+    }
+
+    /**
+     * @return The Zobrist hash of the position.
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Works out the pawn-only hash from scratch, for checking {@link #pawnKey()}.
+     * @return The pawn-only hash of the position.
+     */
+    public long computePawnKey() {
+        long key = 0;
+        long allPawns = pieces(ChessPiece.PAWN, ChessPiece.WHITE) | pieces(ChessPiece.PAWN, ChessPiece.BLACK);
+
+        for (long pawns = allPawns; pawns != 0; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            key ^= Zobrist.pawn(squares[square], square);
+        }
+
+        return key;
+    }
+
+    /**
+     * @return The hash of only the pawns in the position, which stays the same as long as no pawn moves.
+     */
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Works out the piece-square total from scratch. It should always be the same as the
+     * total kept up to date as pieces move, see {@link #midgameScore()} and {@link #endgameScore()}.
+     * @return The packed middlegame and endgame total, for white.
+     */
+    public int computeScore() {
+        int total = 0;
+
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            total += PieceSquareTables.score(squares[square], square);
+        }
+
+        return total;
+    }
+
+    /**
+     * @return The packed middlegame and endgame piece-square total, for white.
+     */
+    public int score() {
+        return score;
+    }
+
+    /**
+     * @return The material and piece-square total for the middlegame, positive when white is ahead.
+     */
+    public int midgameScore() {
+        return PieceSquareTables.midgame(score);
+    }
+
+    /**
+     * @return The material and piece-square total for the endgame, positive when white is ahead.
+     */
+    public int endgameScore() {
+        return PieceSquareTables.endgame(score);
+    }
+
+    /**
+     * @return The game phase, from {@link PieceSquareTables#MAX_PHASE} with every piece still
+     * on the board down to 0 with only kings and pawns. It can go above the maximum after promotions.
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * @return {@link ChessPiece#WHITE} or {@link ChessPiece#BLACK}.
+     */
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return The castling rights that are left, as a combination of the castling bits such as {@link #WHITE_KINGSIDE}.
+     */
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return The square a pawn can capture en passant on, or {@link #NO_SQUARE}.
+     */
+    public int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return The number of moves made since the last capture or pawn move.
+     */
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return The number of the current full move, starting at 1 and going up after black moves.
+     */
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Counts how many times the current position came up before, going back to the last
+     * capture or pawn move. Only positions with the same side to move can be the same, so
+     * every other hash is skipped.
+     * @return The number of earlier occurrences of the position.
+     */
+    public int repetitionCount() {
+        return countRepetitions(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return True if the position has come up at least once before, which a search can treat
+     * as a draw, since either side could repeat it again.
+     */
+    public boolean isRepetition() {
+        return countRepetitions(1) > 0;
+    }
+
+    /**
+     * @return True if the same position has come up three times, which is a draw.
+     */
+    public boolean isThreefoldRepetition() {
+        return countRepetitions(2) >= 2;
+    }
+
+    /**
+     * Counts earlier occurrences of the current position, see {@link #repetitionCount()}.
+     * @param limit The count to stop at, since callers often only need to know if there are that many.
+     * @return The number of earlier occurrences, up to the limit.
+     */
+    private int countRepetitions(int limit) {
+        int count = 0;
+        int oldest = Math.max(0, historySize - halfmoveClock); // The halfmove clock from a FEN can go back further than the undo stack.
+
+        for (int i = historySize - 4; i >= oldest && count < limit; i -= 2) { // A position can't repeat in fewer than four moves.
+            if (hashHistory[i] == hash) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return True if 50 moves by each player have gone by without a capture or pawn move, which is a draw.
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return The number of moves on the undo stack.
+     */
+    public int historySize() {
+        return historySize;
+    }
+
+    /**
+     * Converts board coordinates into a square number.
+     * @param rankPosition The horizontal (x) coordinate on the board grid, from 1 to 8.
+     * @param filePosition The vertical (y) coordinate on the board grid, from 1 to 8.
+     * @return The square number, from 0 to 63.
+     */
+    public static int square(int rankPosition, int filePosition) {
+        return (filePosition - 1) * 8 + (rankPosition - 1);
+    }
+
+    /**
+     * @param square A square number.
+     * @return The horizontal (x) board coordinate of the square, from 1 to 8.
+     */
+    public static int rankPositionOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @param square A square number.
+     * @return The vertical (y) board coordinate of the square, from 1 to 8.
+     */
+    public static int filePositionOf(int square) {
+        return (square >>> 3) + 1;
+    }
+}
@@ -0,0 +1,38 @@
+package chess;
+
+/**
+ * The rook chess piece. Contains the calculation for its valid moves.
+ * @author Haris Mehuljic
+ */
+public class Rook extends ChessPiece {
+
+    /**
+     * Creates a new chess piece
+     * @param name The name of the piece.
+     * @param symbol The symbol to represent the piece on the board printed to the console.
+     * @param black Whether or not the piece is black.
+     * @param rankPosition The horizontal (x) coordinate of the piece on the board grid.
+     * @param filePosition The vertical (y) coordinate of the piece on the board grid.
+     */
+    public Rook(boolean black, int rankPosition, int filePosition) {
+        super("Rook", "R", ROOK, black, rankPosition, filePosition);
+    }
+
+    @Override
+    public int calculateValidBoardMoves(Position position, int[] moves, int count) {
+        return generateMoves(position, getSquare(), moves, count);
+    }
+
+    /**
+     * Writes the moves of the rook standing on a square into a move buffer.
+     * @param position The bitboards of the pieces currently on the board.
+     * @param from The square the rook is on.
+     * @param moves The buffer the packed moves are written into.
+     * @param count The number of moves already in the buffer.
+     * @return The new number of moves in the buffer.
+     */
+    public static int generateMoves(Position position, int from, int[] moves, int count) {
+        // The rook can move horizontally or vertically in any direction.
+        return addAttackedSquares(position, from, Attacks.rook(from, position.occupied()), moves, count);
+    }
+}
@@ -0,0 +1,188 @@
+package chess;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Draws the board in the terminal for the interactive game, keeping it in the same place on
+ * the screen from turn to turn. The first frame clears the screen and draws the whole board.
+ * After that, only the squares that changed since the last frame are drawn again, by moving
+ * the cursor to them with ANSI escape codes, so a normal move sends a few dozen bytes instead
+ * of the whole board. That matters most over slow connections like SSH.
+ *
+ * Each frame is built in a StringBuilder that's reused for every frame and is sent to the
+ * terminal with a single write, so the screen never shows a half drawn board. Squares can be
+ * highlighted, i.e. to show where a piece can move, in which case they're drawn in reverse video.
+ *
+ * The text below the board, the captured pieces and a message such as the prompt, is cleared
+ * and written again on every frame, and anything typed in after the last frame is cleared
+ * along with it. If the screen is changed by something else, {@link #invalidate()} makes the
+ * next frame draw everything again.
+ * @author Haris Mehuljic
+ */
+public class TerminalRenderer {
+    private static final String ESCAPE = "\u001B[";
+    private static final String CLEAR_SCREEN = ESCAPE + "H" + ESCAPE + "2J";
+    private static final String CLEAR_TO_END = ESCAPE + "J";
+    private static final String REVERSE_VIDEO = ESCAPE + "7m";
+    private static final String RESET = ESCAPE + "0m";
+
+    private static final int HIGHLIGHTED = 16; // Added to a piece code when the square is highlighted.
+    private static final int NOT_DRAWN = -1;
+    private static final int CAPTURED_ROW = 20; // Below the board, its letters and a blank line, the same as Board.toString().
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final StringBuilder frame = new StringBuilder(4096);
+    private ByteBuffer bytes = ByteBuffer.allocate(4096);
+
+    // What's on the screen, so the next frame knows what it can leave alone.
+    private final int[] drawnSquares = new int[64];
+    private int drawnCapturedCount;
+    private int messageRow;
+    private boolean drawn;
+
+    /**
+     * @param out Where the frames are written, usually {@link System#out}.
+     * @param charset The character set of the terminal.
+     */
+    public TerminalRenderer(OutputStream out, Charset charset) {
+        this.out = out;
+        // Characters the terminal can't show are written as question marks instead of failing the frame.
+        this.encoder = charset.newEncoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Uses the default character set, the same as {@link System#out}.
+     * @see #TerminalRenderer(OutputStream, Charset)
+     */
+    public TerminalRenderer(OutputStream out) {
+        this(out, Charset.defaultCharset());
+    }
+
+    /**
+     * Draws the board, changing only what's different from the last frame.
+     * @param board The board to draw.
+     * @param highlights The squares to highlight, one bit per square, or 0 for none.
+     * @param message The text written below the captured pieces. The cursor is left at its end.
+     */
+    public void render(Board board, long highlights, CharSequence message) {
+        Position position = board.getPosition();
+        frame.setLength(0);
+
+        if (!drawn) {
+            frame.append(CLEAR_SCREEN);
+            board.appendBoard(frame, 0L, true);
+
+            for (int square = 0; square < 64; square++) {
+                drawnSquares[square] = position.pieceAt(square);
+            }
+
+            drawnCapturedCount = NOT_DRAWN;
+            drawn = true;
+        }
+
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            int state = (highlights & (1L << square)) != 0 ? piece | HIGHLIGHTED : piece;
+
+            if (state != drawnSquares[square]) {
+                moveCursor(2 + 2 * (8 - Position.filePositionOf(square)), 1 + 2 * Position.rankPositionOf(square));
+                appendSquare(square, state);
+                drawnSquares[square] = state;
+            }
+        }
+
+        // The captured pieces only change when a piece is taken, but the message is new every frame.
+        if (board.getCapturedPieces().size() != drawnCapturedCount) {
+            moveCursor(CAPTURED_ROW, 1);
+            frame.append(CLEAR_TO_END);
+
+            int start = frame.length();
+            board.appendCapturedPieces(frame);
+            messageRow = CAPTURED_ROW + countLines(start);
+            drawnCapturedCount = board.getCapturedPieces().size();
+        }
+        else {
+            moveCursor(messageRow, 1);
+            frame.append(CLEAR_TO_END);
+        }
+
+        frame.append(message);
+        write();
+    }
+
+    /**
+     * Makes the next frame clear the screen and draw everything, for when something else has written to the terminal.
+     */
+    public void invalidate() {
+        drawn = false;
+    }
+
+    private void appendSquare(int square, int state) {
+        if ((state & HIGHLIGHTED) != 0) {
+            frame.append(REVERSE_VIDEO).append(ChessPiece.displaySymbol(state & ~HIGHLIGHTED)).append(RESET);
+        }
+        else {
+            frame.append(Board.squareSymbol(square, state));
+        }
+    }
+
+    /**
+     * Adds the escape code that moves the cursor to a line and column, both counted from 1.
+     */
+    private void moveCursor(int row, int column) {
+        frame.append(ESCAPE).append(row).append(';').append(column).append('H');
+    }
+
+    private int countLines(int start) {
+        int lines = 0;
+
+        for (int i = start; i < frame.length(); i++) {
+            if (frame.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Encodes the frame into the reused byte buffer, growing it if the frame doesn't fit, and writes it all at once.
+     */
+    private void write() {
+        CharBuffer chars = CharBuffer.wrap(frame);
+        encoder.reset();
+        bytes.clear();
+
+        while (encoder.encode(chars, bytes, true).isOverflow()) {
+            grow();
+        }
+
+        while (encoder.flush(bytes).isOverflow()) {
+            grow();
+        }
+
+        try {
+            out.write(bytes.array(), 0, bytes.position());
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("The board couldn't be drawn.", e);
+        }
+    }
+
+    private void grow() {
+        ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+        bytes.flip();
+        bytes = larger.put(bytes);
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * The random keys used to hash positions. A position's hash is the XOR of a key for every
+ * piece on every square, plus keys for the castling rights, the en passant file and the
+ * side to move. Since XOR undoes itself, moving a piece only needs the keys of the squares
+ * it leaves and lands on, so {@link Position} keeps its hash up to date as moves are made.
+ *
+ * A second, pawn-only hash uses just the piece keys of the pawns. It only changes when a pawn
+ * moves, is captured or promotes, which makes it a good key for caching anything that
+ * depends only on the pawn structure.
+ *
+ * The keys come from a generator with a fixed seed, so a position always has the same
+ * hash, even between runs of the program.
+ * @see https://www.chessprogramming.org/Zobrist_Hashing
+ * @author Haris Mehuljic
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[16][64];
+    private static final long[][] PAWN_KEYS = new long[16][64]; // The pawns' piece keys, and 0 for every other piece.
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    private static final long GAMMA = 0x9E3779B97F4A7C15L; // Added to the seed for each new key, as in SplitMix64.
+
+    static {
+        long seed = 0x2545F4914F6CDD1DL;
+
+        for (int type = ChessPiece.PAWN; type <= ChessPiece.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_KEYS[ChessPiece.pieceCode(type, false)][square] = mix(seed += GAMMA);
+                PIECE_KEYS[ChessPiece.pieceCode(type, true)][square] = mix(seed += GAMMA);
+            }
+        }
+
+        // Every combination of rights gets its own key, so updating them is a single XOR.
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING_KEYS[rights] = mix(seed += GAMMA);
+        }
+
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_KEYS[file] = mix(seed += GAMMA);
+        }
+
+        SIDE_KEY = mix(seed += GAMMA);
+
+        PAWN_KEYS[ChessPiece.pieceCode(ChessPiece.PAWN, false)] = PIECE_KEYS[ChessPiece.pieceCode(ChessPiece.PAWN, false)];
+        PAWN_KEYS[ChessPiece.pieceCode(ChessPiece.PAWN, true)] = PIECE_KEYS[ChessPiece.pieceCode(ChessPiece.PAWN, true)];
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param piece A piece code.
+     * @param square The square the piece is on.
+     * @return The key for that piece on that square.
+     */
+    public static long piece(int piece, int square) {
+        return PIECE_KEYS[piece][square];
+    }
+
+    /**
+     * @param piece A piece code.
+     * @param square The square the piece is on.
+     * @return The key for that piece on that square in the pawn-only hash, which is 0 unless the piece is a pawn.
+     */
+    public static long pawn(int piece, int square) {
+        return PAWN_KEYS[piece][square];
+    }
+
+    /**
+     * @param castlingRights The castling rights bits.
+     * @return The key for that combination of rights.
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param square The en passant square.
+     * @return The key for the file of the square.
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT_KEYS[square & 7];
+    }
+
+    /**
+     * @return The key added when black is to move.
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Scrambles the bits of the seed, the way the SplitMix64 generator turns its state into a random number.
+     * @param seed The generator state.
+     * @return A random number.
+     */
+    private static long mix(long seed) {
+        long z = seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
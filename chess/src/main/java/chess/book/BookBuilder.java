@@ -0,0 +1,346 @@
+package chess.book;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import chess.ChessPiece;
+import chess.Position;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+/**
+ * Builds an {@link OpeningBook} from a collection of games. Every move in the first few moves
+ * of each game becomes a book entry, weighted by how the game went for the player who made
+ * it: 2 for a win, 1 for a draw and 0 for a loss, added up over every game it was played in.
+ *
+ * Collections can be much larger than the memory available, so the entries are sorted with
+ * an external merge sort. They're collected in fixed-size batches, and each batch is sorted,
+ * has its repeated moves combined, and is written to a temporary file as a sorted run. The
+ * runs are then merged into the book, combining the same moves from different runs. Moves
+ * that never scored anything are left out.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.book.BookBuilder [games] [book] [plies]   Builds a book file from a PGN file, with the moves
+ *                                                       from the first plies of each game (16 by default)
+ * </pre>
+ * @author Haris Mehuljic
+ */
+public class BookBuilder {
+    public static final int DEFAULT_PLIES = 16;
+    public static final int DEFAULT_RUN_ENTRIES = 1 << 20; // 16 MB of entries in memory at a time.
+
+    private static final int INSERTION_SORT_SIZE = 16;
+
+    private final int plies;
+    private final int runEntries;
+
+    // The batch being collected, kept in parallel arrays so it takes no objects.
+    private final long[] keys;
+    private final int[] moves;
+    private final int[] weights;
+    private int size;
+
+    private final List<Path> runs = new ArrayList<Path>();
+    private long games;
+    private long entriesWritten;
+
+    /**
+     * @param plies The number of half-moves at the start of each game to take moves from.
+     * @param runEntries The number of entries to collect in memory before sorting them into a run.
+     */
+    public BookBuilder(int plies, int runEntries) {
+        this.plies = plies;
+        this.runEntries = runEntries;
+        keys = new long[runEntries];
+        moves = new int[runEntries];
+        weights = new int[runEntries];
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path games = Paths.get(args.length > 0 ? args[0] : "games.pgn");
+        Path book = Paths.get(args.length > 1 ? args[1] : "book.bin");
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES;
+
+        BookBuilder builder = new BookBuilder(plies, DEFAULT_RUN_ENTRIES);
+        long start = System.nanoTime();
+
+        try (PgnReader reader = new PgnReader(games)) {
+            builder.build(reader, book);
+        }
+
+        System.out.printf("%d games, %d runs, %d book entries in %.2f s%n",
+                          builder.games, builder.runs.size(), builder.entriesWritten, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Reads every game and writes the book.
+     * @param reader The games to take moves from. Games with errors are used up to the first error.
+     * @param book The book file to write. It's replaced if it already exists.
+     * @throws IOException If the games can't be read or the book can't be written.
+     */
+    public void build(PgnReader reader, Path book) throws IOException {
+        PgnGame game = new PgnGame();
+        Path directory = book.toAbsolutePath().getParent();
+
+        try {
+            while (reader.readGame(game)) {
+                games++;
+                addGame(game, directory);
+            }
+
+            if (size > 0) {
+                writeRun(directory);
+            }
+
+            mergeRuns(book);
+        }
+        finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Adds the opening moves of a game to the batch. The game's position holds every move on
+     * its undo stack, so it's taken back to the start and replayed to find the Polyglot key of
+     * each position.
+     */
+    private void addGame(PgnGame game, Path directory) throws IOException {
+        String result = game.getResult();
+
+        if (result.equals("*")) {
+            return; // Unfinished games say nothing about how good their moves were.
+        }
+
+        int whiteWeight = result.equals("1-0") ? 2 : result.equals("1/2-1/2") ? 1 : 0;
+        int blackWeight = result.equals("0-1") ? 2 : result.equals("1/2-1/2") ? 1 : 0;
+
+        Position position = game.getPosition();
+        int count = Math.min(plies, game.getMoveCount());
+
+        for (int i = game.getMoveCount(); i > 0; i--) {
+            position.unmakeMove();
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (size == runEntries) {
+                writeRun(directory);
+            }
+
+            int move = game.getMove(i);
+            keys[size] = PolyglotKey.of(position);
+            moves[size] = OpeningBook.encodeMove(move);
+            weights[size] = position.sideToMove() == ChessPiece.WHITE ? whiteWeight : blackWeight;
+            size++;
+
+            position.makeMove(move);
+        }
+    }
+
+    /**
+     * Sorts the batch, combines its repeated moves, and writes it to a new run file.
+     */
+    private void writeRun(Path directory) throws IOException {
+        sort(0, size - 1);
+        Path run = Files.createTempFile(directory, "book", ".run");
+        runs.add(run);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            int i = 0;
+
+            while (i < size) {
+                long weight = 0;
+                int j = i;
+
+                for (; j < size && keys[j] == keys[i] && moves[j] == moves[i]; j++) {
+                    weight += weights[j];
+                }
+
+                writeEntry(out, keys[i], moves[i], weight);
+                i = j;
+            }
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Merges the sorted runs into the book, adding up the weights of the same move in the same position.
+     */
+    private void mergeRuns(Path book) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<Run>(Math.max(1, runs.size()));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(book), 1 << 16))) {
+            for (Path path : runs) {
+                Run run = new Run(path);
+
+                if (run.next()) {
+                    queue.add(run);
+                }
+                else {
+                    run.close();
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                long key = run.key;
+                int move = run.move;
+                long weight = 0;
+
+                // Each run has an entry at most once, so the runs at the front of the queue with the same entry are all of them.
+                while (true) {
+                    weight += run.weight;
+
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                    else {
+                        run.close();
+                    }
+
+                    Run next = queue.peek();
+                    if (next == null || next.key != key || next.move != move) {
+                        break;
+                    }
+
+                    run = queue.poll();
+                }
+
+                if (weight > 0) {
+                    writeEntry(out, key, move, weight);
+                    entriesWritten++;
+                }
+            }
+        }
+        finally {
+            for (Run run : queue) {
+                run.close();
+            }
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, long key, int move, long weight) throws IOException {
+        out.writeLong(key);
+        out.writeShort(move);
+        out.writeShort((int) Math.min(weight, 0xFFFF));
+        out.writeInt(0);
+    }
+
+    /**
+     * Orders two entries by key as unsigned numbers, then by move.
+     */
+    private static int compare(long key, int move, long otherKey, int otherMove) {
+        int order = Long.compareUnsigned(key, otherKey);
+        return order != 0 ? order : Integer.compare(move, otherMove);
+    }
+
+    /**
+     * Sorts part of the batch with a quicksort, moving the keys, moves and weights together.
+     */
+    private void sort(int low, int high) {
+        while (high - low >= INSERTION_SORT_SIZE) {
+            int middle = (low + high) >>> 1;
+            long pivotKey = keys[middle];
+            int pivotMove = moves[middle];
+            int i = low;
+            int j = high;
+
+            while (i <= j) {
+                while (compare(keys[i], moves[i], pivotKey, pivotMove) < 0) {
+                    i++;
+                }
+
+                while (compare(keys[j], moves[j], pivotKey, pivotMove) > 0) {
+                    j--;
+                }
+
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Recursing into the smaller half keeps the stack shallow.
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            }
+            else {
+                sort(i, high);
+                high = j;
+            }
+        }
+
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(keys[j], moves[j], keys[j - 1], moves[j - 1]) < 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+
+        int weight = weights[i];
+        weights[i] = weights[j];
+        weights[j] = weight;
+    }
+
+    /**
+     * A sorted run file being read during the merge, holding its current entry.
+     */
+    private static class Run implements Comparable<Run> {
+        private final DataInputStream in;
+        private long key;
+        private int move;
+        private int weight;
+
+        Run(Path path) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        }
+
+        /**
+         * Reads the next entry.
+         * @return False if the run has no more entries.
+         */
+        boolean next() throws IOException {
+            try {
+                key = in.readLong();
+                move = in.readUnsignedShort();
+                weight = in.readUnsignedShort();
+                in.readInt();
+                return true;
+            }
+            catch (EOFException e) {
+                return false;
+            }
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public int compareTo(Run other) {
+            return compare(key, move, other.key, other.move);
+        }
+    }
+}
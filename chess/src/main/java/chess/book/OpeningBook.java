@@ -0,0 +1,241 @@
+package chess.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Perft;
+import chess.Position;
+
+/**
+ * An opening book in the Polyglot file format: a list of 16-byte entries sorted by position
+ * key, each holding one move that was played in that position and a weight for how good the
+ * move is. The file is memory-mapped rather than read, so even a book of hundreds of megabytes
+ * takes no room on the heap, and the moves for a position are found with a binary search.
+ *
+ * Each entry is big-endian and laid out as:
+ * <pre>
+ *  bytes  0-7   the position key
+ *  bytes  8-9   the move: to file and row in bits 0-5, from file and row in bits 6-11, and
+ *               the promotion piece in bits 12-14 (1 for a knight up to 4 for a queen)
+ *  bytes 10-11  the weight, higher for moves that scored better
+ *  bytes 12-15  learning data, which isn't used
+ * </pre>
+ * Castling is written as the king taking its own rook, i.e. e1h1 for white castling kingside.
+ *
+ * The position keys are the standard Polyglot keys (see {@link PolyglotKey}), so books made
+ * by other programs work as well as the ones made with {@link BookBuilder}. Every move is
+ * still checked against the legal moves of the position before it's returned. A book
+ * shouldn't be used by more than one thread at a time.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.book.OpeningBook [book] [fen]   Lists the book moves for a position (the starting position by default)
+ * </pre>
+ * @see http://hgm.nubati.net/book_format.html
+ * @author Haris Mehuljic
+ */
+public class OpeningBook {
+    public static final int ENTRY_SIZE = 16;
+
+    // Books larger than the 2 GB a single mapping can hold are mapped in several segments.
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long ENTRIES_PER_SEGMENT = 1L << SEGMENT_SHIFT;
+
+    private final MappedByteBuffer[] segments;
+    private final long entryCount;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Maps a book file into memory. The file isn't read until moves are looked up.
+     * @param path The book file.
+     * @throws IOException If the file can't be opened or isn't made of whole entries.
+     */
+    public OpeningBook(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size % ENTRY_SIZE != 0) {
+                throw new IOException(path + " isn't an opening book: its size isn't a multiple of " + ENTRY_SIZE + " bytes.");
+            }
+
+            entryCount = size / ENTRY_SIZE;
+            segments = new MappedByteBuffer[(int) ((entryCount + ENTRIES_PER_SEGMENT - 1) >>> SEGMENT_SHIFT)];
+
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * ENTRIES_PER_SEGMENT * ENTRY_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, ENTRIES_PER_SEGMENT * ENTRY_SIZE));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        OpeningBook book = new OpeningBook(Paths.get(args.length > 0 ? args[0] : "book.bin"));
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Perft.STARTING_FEN;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] weights = new int[MoveGenerator.MAX_MOVES];
+
+        Position position = Position.fromFen(fen);
+        int count = book.findMoves(position, moves, weights);
+
+        for (int i = 0; i < count; i++) {
+            System.out.println(Move.toString(moves[i]) + " " + weights[i]);
+        }
+
+        // The first lookup also pays for loading the classes and reading the pages in, so the time is taken over many more.
+        int lookups = 100000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            book.findMoves(position, moves, weights);
+        }
+
+        long time = System.nanoTime() - start;
+        System.out.printf("%d moves out of %d entries, %.2f us per lookup%n", count, book.entryCount, time / 1e3 / lookups);
+    }
+
+    /**
+     * Finds the book moves for a position, in the order they're stored in the book.
+     * @param position The position to look up.
+     * @param moves Filled with the legal book moves, packed.
+     * @param weights Filled with the weight of each move.
+     * @return The number of moves found, which is 0 if the position isn't in the book.
+     */
+    public int findMoves(Position position, int[] moves, int[] weights) {
+        long key = PolyglotKey.of(position);
+        int legalCount = MoveGenerator.generateLegalMoves(position, moveBuffer);
+        int count = 0;
+
+        for (long i = lowerBound(key); i < entryCount && keyAt(i) == key; i++) {
+            int move = decodeMove(moveAt(i), moveBuffer, legalCount);
+
+            if (move != Move.NONE && count < moves.length) {
+                moves[count] = move;
+                weights[count] = weightAt(i);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Picks one of the book moves for a position at random, with moves of a higher weight
+     * picked more often.
+     * @param position The position to look up.
+     * @param random The source of randomness.
+     * @return The move, or {@link Move#NONE} if the position isn't in the book.
+     */
+    public int pickMove(Position position, Random random) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] weights = new int[MoveGenerator.MAX_MOVES];
+        int count = findMoves(position, moves, weights);
+        int total = 0;
+
+        for (int i = 0; i < count; i++) {
+            total += weights[i];
+        }
+
+        if (total == 0) {
+            return count > 0 ? moves[random.nextInt(count)] : Move.NONE;
+        }
+
+        int pick = random.nextInt(total);
+        for (int i = 0; i < count; i++) {
+            pick -= weights[i];
+
+            if (pick < 0) {
+                return moves[i];
+            }
+        }
+
+        return Move.NONE;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return The index of the first entry with a key that isn't less than the given key,
+     * comparing them as unsigned numbers like the book is sorted.
+     */
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = entryCount;
+
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private long keyAt(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    private int moveAt(long index) {
+        return segment(index).getShort(offset(index) + 8) & 0xFFFF;
+    }
+
+    private int weightAt(long index) {
+        return segment(index).getShort(offset(index) + 10) & 0xFFFF;
+    }
+
+    private ByteBuffer segment(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index & (ENTRIES_PER_SEGMENT - 1)) * ENTRY_SIZE;
+    }
+
+    /**
+     * Converts a move to the way it's written in a book.
+     * @param move A packed move.
+     * @return The book move.
+     */
+    static int encodeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        // The king's destination becomes the square of the rook it castles with.
+        if (Move.flag(move) == Move.CASTLE) {
+            to = (to & 7) == 6 ? to + 1 : to - 2;
+        }
+
+        // A file and row in three bits each is the same as the square numbers used everywhere else.
+        int promotion = Move.isPromotion(move) ? Move.promotion(move) - ChessPiece.PAWN : 0;
+        return to | (from << 6) | (promotion << 12);
+    }
+
+    /**
+     * Finds the legal move that a book move stands for.
+     * @return The packed move, or {@link Move#NONE} if none of the legal moves match it.
+     */
+    private static int decodeMove(int bookMove, int[] legalMoves, int legalCount) {
+        for (int i = 0; i < legalCount; i++) {
+            if (encodeMove(legalMoves[i]) == bookMove) {
+                return legalMoves[i];
+            }
+        }
+
+        return Move.NONE;
+    }
+}
@@ -0,0 +1,281 @@
+package chess.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import chess.Move;
+import chess.Perft;
+import chess.Position;
+import chess.pgn.PgnGame;
+import chess.pgn.PgnReader;
+
+/**
+ * Analyses every position of every game in a PGN collection to a fixed depth or number of
+ * nodes, spreading the games over a work-stealing pool. Each worker thread has its own engine
+ * and position, which it reuses for every game it's given, so the workers share nothing.
+ *
+ * The results are written as one line per position, either as JSON or CSV, in the same order
+ * as the games and moves in the input, no matter which worker finished first. Games are read
+ * only a few at a time ahead of the output, so the memory used doesn't depend on the size of
+ * the collection.
+ *
+ * Every game starts with an empty transposition table. That makes a game's results the same
+ * whichever worker analyses it and whatever it analysed before, so runs can be compared.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.engine.BatchAnalysis [options] [file]   Analyses the games in the file (or standard input if there
+ *                                                     is none or it's "-"), writing the results to standard output
+ *
+ *  --depth n     The depth to search each position to (6 by default)
+ *  --nodes n     The number of nodes to search each position for, instead of a depth
+ *  --threads n   The number of worker threads (one for each processor by default)
+ *  --hash mb     The transposition table size of each worker (16 by default)
+ *  --csv         Writes CSV instead of JSON lines
+ * </pre>
+ * Each result has the game number, the ply, the position as FEN, the move played in the game
+ * (empty after the last one), the best move found, the depth reached, the score in centipawns
+ * for the side to move, the number of moves to mate if there's one, and the nodes searched.
+ * @author Haris Mehuljic
+ */
+public class BatchAnalysis {
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+    public static final String CSV_HEADER = "game,ply,fen,played,bestmove,depth,score,mate,nodes";
+
+    private static final int PENDING_GAMES_PER_WORKER = 4; // How far reading can get ahead of writing.
+
+    private final SearchLimits limits;
+    private final int threads;
+    private final int hashMegabytes;
+    private final boolean csv;
+    private final List<Worker> workers = Collections.synchronizedList(new ArrayList<Worker>());
+
+    private long games;
+    private long positions;
+
+    /**
+     * @param limits When to stop searching each position. Only depth and node limits make the results repeatable.
+     * @param threads The number of worker threads.
+     * @param hashMegabytes The transposition table size of each worker.
+     * @param csv True to write CSV, false to write JSON lines.
+     */
+    public BatchAnalysis(SearchLimits limits, int threads, int hashMegabytes, boolean csv) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The analysis needs at least one thread.");
+        }
+
+        this.limits = limits;
+        this.threads = threads;
+        this.hashMegabytes = hashMegabytes;
+        this.csv = csv;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SearchLimits limits = SearchLimits.depth(6);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMegabytes = DEFAULT_HASH_MEGABYTES;
+        boolean csv = false;
+        String file = "-";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth": limits = SearchLimits.depth(Integer.parseInt(args[++i])); break;
+                case "--nodes": limits = SearchLimits.nodes(Long.parseLong(args[++i])); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hashMegabytes = Integer.parseInt(args[++i]); break;
+                case "--csv": csv = true; break;
+                default: file = args[i];
+            }
+        }
+
+        BatchAnalysis analysis = new BatchAnalysis(limits, threads, hashMegabytes, csv);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        long start = System.nanoTime();
+
+        try (PgnReader reader = file.equals("-") ? new PgnReader(Channels.newChannel(System.in))
+                                                 : new PgnReader(Paths.get(file))) {
+            analysis.run(reader, out);
+        }
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.err.printf("%d games, %d positions in %.2f s with %d threads, %.0f positions/s%n",
+                          analysis.games, analysis.positions, seconds, threads, analysis.positions / seconds);
+
+        long[] workerPositions = analysis.getWorkerPositions();
+        for (int i = 0; i < workerPositions.length; i++) {
+            System.err.println("worker " + i + " positions " + workerPositions[i]);
+        }
+    }
+
+    /**
+     * Analyses every game from a reader and writes the results. This blocks until all of them are written.
+     * @param reader The games to analyse. Games with errors are analysed up to the first error.
+     * @param out Where the results go. It's flushed at the end but not closed.
+     * @throws IOException If the games can't be read or the results can't be written.
+     */
+    public void run(PgnReader reader, Writer out) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads, forkJoinPool -> {
+            Worker worker = new Worker(forkJoinPool);
+            workers.add(worker);
+            return worker;
+        }, null, false);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<Future<String>>();
+        PgnGame game = new PgnGame();
+
+        if (csv) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+
+        try {
+            while (reader.readGame(game)) {
+                long number = ++games;
+                String fen = game.getStartingFen();
+                int[] moves = new int[game.getMoveCount()];
+
+                for (int i = 0; i < moves.length; i++) {
+                    moves[i] = game.getMove(i);
+                }
+
+                if (game.hasError()) {
+                    System.err.println("Game " + number + ": " + game.getError());
+                }
+
+                pending.add(pool.submit(() -> ((Worker) Thread.currentThread()).analyse(number, fen, moves)));
+
+                // Results are written as soon as every game before them is done, and reading waits once it's far enough ahead.
+                while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() >= threads * PENDING_GAMES_PER_WORKER)) {
+                    out.write(result(pending.poll()));
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                out.write(result(pending.poll()));
+            }
+
+            out.flush();
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The number of positions each worker thread has analysed.
+     */
+    public long[] getWorkerPositions() {
+        synchronized (workers) {
+            long[] counts = new long[workers.size()];
+
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = workers.get(i).positions;
+            }
+
+            return counts;
+        }
+    }
+
+    private String result(Future<String> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The analysis was interrupted.", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("An analysis worker failed.", e.getCause());
+        }
+    }
+
+    /**
+     * A pool thread with its own engine and position.
+     */
+    private class Worker extends ForkJoinWorkerThread {
+        private final Engine engine = new Engine(hashMegabytes, 1);
+        private final Position position = new Position();
+        private volatile long positions;
+
+        Worker(ForkJoinPool pool) {
+            super(pool);
+            setName("analysis-worker-" + getPoolIndex());
+        }
+
+        /**
+         * Analyses every position of a game, from the start to after the last move.
+         * @return The result lines for the game.
+         */
+        String analyse(long game, String fen, int[] moves) {
+            StringBuilder lines = new StringBuilder(128 * (moves.length + 1));
+
+            try {
+                position.loadFen(fen != null ? fen : Perft.STARTING_FEN);
+            }
+            catch (IllegalArgumentException e) {
+                return ""; // The reader has already reported the game.
+            }
+
+            engine.clearHash();
+
+            for (int ply = 0; ply <= moves.length; ply++) {
+                SearchInfo info = engine.bestMove(position, limits);
+                int played = ply < moves.length ? moves[ply] : Move.NONE;
+
+                appendResult(lines, game, ply, position.toFen(), played, info);
+                positions++;
+
+                if (played != Move.NONE) {
+                    position.makeMove(played);
+                }
+            }
+
+            synchronized (BatchAnalysis.this) {
+                BatchAnalysis.this.positions += moves.length + 1;
+            }
+
+            return lines.toString();
+        }
+    }
+
+    private void appendResult(StringBuilder lines, long game, int ply, String fen, int played, SearchInfo info) {
+        String playedText = played != Move.NONE ? Move.toString(played) : "";
+        String bestText = info.getBestMove() != Move.NONE ? Move.toString(info.getBestMove()) : "";
+
+        if (csv) {
+            lines.append(game).append(',').append(ply).append(',').append(fen).append(',')
+                 .append(playedText).append(',').append(bestText).append(',').append(info.getDepth()).append(',')
+                 .append(info.getScore()).append(',');
+
+            if (info.isMateScore()) {
+                lines.append(info.getMateIn());
+            }
+
+            lines.append(',').append(info.getNodes()).append('\n');
+        }
+        else {
+            lines.append("{\"game\":").append(game)
+                 .append(",\"ply\":").append(ply)
+                 .append(",\"fen\":\"").append(fen)
+                 .append("\",\"played\":").append(played != Move.NONE ? '"' + playedText + '"' : "null")
+                 .append(",\"bestmove\":").append(info.getBestMove() != Move.NONE ? '"' + bestText + '"' : "null")
+                 .append(",\"depth\":").append(info.getDepth())
+                 .append(",\"score\":").append(info.getScore())
+                 .append(",\"mate\":").append(info.isMateScore() ? Integer.toString(info.getMateIn()) : "null")
+                 .append(",\"nodes\":").append(info.getNodes())
+                 .append("}\n");
+        }
+    }
+}
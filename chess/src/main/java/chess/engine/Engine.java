@@ -0,0 +1,394 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.Board;
+import chess.ChessPiece;
+import chess.Move;
+import chess.Perft;
+import chess.Position;
+
+/**
+ * The computer player. It finds the best move in a position with an alpha-beta search,
+ * going one depth deeper at a time until it runs out of time, reaches a depth or node
+ * limit, or is told to stop. The transposition table is kept between searches, so the
+ * work done for one move helps with the next.
+ *
+ * The search can use several threads (Lazy SMP). Every thread searches the same position
+ * on its own copy of it, sharing only the transposition table. Helper threads skip some
+ * depths so that they run ahead of the main thread, and what they store in the table lets
+ * the main thread search its depths faster. Only the main thread's result is used.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.engine.Engine [depth] [threads] [fen]   Searches a position (the starting position by default)
+ *                                                    to the given depth (8 by default) with the given number
+ *                                                    of threads (1 by default), printing each depth, the
+ *                                                    nodes searched by each thread, the pawn hash table hit rate
+ *                                                    and how often the first move tried caused a cutoff
+ * </pre>
+ * @see https://www.chessprogramming.org/Lazy_SMP
+ * @author Haris Mehuljic
+ */
+public class Engine {
+    public static final int DEFAULT_HASH_MEGABYTES = 64;
+
+    // Time kept back from the clock for the moves to be sent and received.
+    private static final long MOVE_OVERHEAD = 30;
+    // When the number of moves until the next time control isn't known, the remaining time is shared between this many.
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    private final TranspositionTable table;
+    private Search[] searches; // The main thread's search comes first, followed by the helpers'.
+    private ExecutorService helpers;
+    private SearchListener listener;
+
+    private volatile boolean stopped;
+    private long startTime;
+    private int searchColor;
+    // The limits can be set from another thread by ponderHit() while the search is running.
+    private volatile long softTimeLimit; // No new depth is started after this time.
+    private volatile long hardTimeLimit; // The search is stopped at this time, even in the middle of a depth.
+    private volatile long nodeLimit;
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * @param hashMegabytes The memory to use for the transposition table.
+     */
+    public Engine(int hashMegabytes) {
+        this(hashMegabytes, 1);
+    }
+
+    /**
+     * @param hashMegabytes The memory to use for the transposition table.
+     * @param threads The number of threads to search with.
+     */
+    public Engine(int hashMegabytes, int threads) {
+        table = new TranspositionTable(hashMegabytes);
+        setThreads(threads);
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Perft.STARTING_FEN;
+
+        Engine engine = new Engine(DEFAULT_HASH_MEGABYTES, threads);
+        engine.setListener(System.out::println);
+        SearchInfo info = engine.bestMove(Position.fromFen(fen), SearchLimits.depth(depth));
+        System.out.println("bestmove " + Move.toString(info.getBestMove()));
+
+        long[] threadNodes = engine.getThreadNodes();
+        for (int i = 0; i < threadNodes.length; i++) {
+            System.out.println("thread " + i + " nodes " + threadNodes[i]);
+        }
+
+        long hits = engine.getPawnTableHits();
+        long misses = engine.getPawnTableMisses();
+        System.out.printf("pawn hash hits %d misses %d (%.1f%% hits)%n", hits, misses, hits * 100.0 / Math.max(1, hits + misses));
+        System.out.printf("cutoffs %d (%.1f%% on the first move)%n", engine.getCutoffs(), engine.getFirstMoveCutoffRate() * 100);
+
+        engine.close();
+    }
+
+    /**
+     * Sets the number of threads to search with. The helper threads are created here and
+     * reused for every search.
+     * @param threads The number of threads, including the one calling {@link #bestMove}.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The engine needs at least one thread.");
+        }
+
+        close();
+        searches = new Search[threads];
+
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(i, this, table);
+        }
+
+        if (threads > 1) {
+            helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Shuts down the helper threads. The engine searches with one thread afterwards, unless
+     * {@link #setThreads(int)} is called again.
+     */
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+            helpers = null;
+            searches = Arrays.copyOf(searches, 1);
+        }
+    }
+
+    /**
+     * Finds the best move for the player whose turn it is. This blocks until the search is
+     * over, and can be cut short from another thread with {@link #stop()}.
+     * @param board The board to search. It isn't changed.
+     * @param limits When to stop searching.
+     * @return The result of the deepest depth that was finished. Its best move is
+     * {@link Move#NONE} if there are no legal moves.
+     */
+    public SearchInfo bestMove(Board board, SearchLimits limits) {
+        return bestMove(board.getPosition(), limits);
+    }
+
+    /**
+     * @see #bestMove(Board, SearchLimits)
+     */
+    public SearchInfo bestMove(Position position, SearchLimits limits) {
+        stopped = false;
+        startTime = System.currentTimeMillis();
+        searchColor = position.sideToMove();
+        nodeLimit = limits.getNodes() > 0 ? limits.getNodes() : Long.MAX_VALUE;
+        allocateTime(limits, searchColor);
+        table.newSearch();
+
+        for (Search search : searches) {
+            search.resetStatistics();
+        }
+
+        int maxDepth = limits.getDepth() > 0 ? limits.getDepth() : Search.MAX_PLY;
+        Future<?>[] helperResults = new Future<?>[searches.length - 1];
+
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helperResults[i - 1] = helpers.submit(() -> helper.iterate(position, maxDepth, null));
+        }
+
+        SearchInfo result;
+        Throwable helperFailure;
+
+        try {
+            result = searches[0].iterate(position, maxDepth, listener);
+        }
+        finally {
+            // Once the main thread is done, or has failed, the helpers' work is no longer needed.
+            stopped = true;
+            helperFailure = waitForHelpers(helperResults);
+        }
+
+        if (helperFailure != null) {
+            throw new IllegalStateException("A search helper thread failed.", helperFailure);
+        }
+
+        return result;
+    }
+
+    /**
+     * Waits for every helper thread to finish its search.
+     * @return What made the first failed helper fail, or null if none did.
+     */
+    private static Throwable waitForHelpers(Future<?>[] helperResults) {
+        Throwable failure = null;
+
+        for (Future<?> helperResult : helperResults) {
+            try {
+                helperResult.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException e) {
+                failure = failure != null ? failure : e.getCause();
+            }
+        }
+
+        return failure;
+    }
+
+    /**
+     * Works out how long to search for. With a fixed move time the whole time is used. With
+     * a clock, the remaining time is shared between the moves still to be played before the
+     * next time control, plus most of the increment. The search can go up to three times
+     * over that if it's in the middle of a depth, but never close to running out of time.
+     */
+    private void allocateTime(SearchLimits limits, int color) {
+        softTimeLimit = Long.MAX_VALUE;
+        hardTimeLimit = Long.MAX_VALUE;
+
+        if (limits.getMoveTime() > 0) {
+            softTimeLimit = limits.getMoveTime();
+            hardTimeLimit = limits.getMoveTime();
+        }
+        else if (limits.hasClock()) {
+            long remaining = color == ChessPiece.WHITE ? limits.getWhiteTime() : limits.getBlackTime();
+            long increment = color == ChessPiece.WHITE ? limits.getWhiteIncrement() : limits.getBlackIncrement();
+            int movesToGo = limits.getMovesToGo() > 0 ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+
+            long available = Math.max(1, remaining - MOVE_OVERHEAD);
+            long optimum = Math.min(available, available / movesToGo + increment * 3 / 4);
+
+            // A new depth usually takes longer than all the ones before it, so there's no point starting one past half the time.
+            softTimeLimit = Math.max(1, optimum / 2);
+            hardTimeLimit = Math.max(1, Math.min(optimum * 3, available));
+        }
+    }
+
+    /**
+     * Stops the current search as soon as possible. The search still returns the result of
+     * the deepest depth it finished.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Gives limits to a search that's running without any, for pondering: searching the
+     * position after the move the opponent is expected to make while they're still thinking.
+     * When they make that move, the search carries on with these limits instead of starting
+     * over. The time already spent pondering counts towards them, so if the opponent took
+     * longer than the time for the move, the search stops right away with the deepest result
+     * it has.
+     * @param limits When to stop searching, as if they had been given to {@link #bestMove}. Only
+     * the time and node limits are used, since the depth a search goes to is set when it starts.
+     */
+    public void ponderHit(SearchLimits limits) {
+        nodeLimit = limits.getNodes() > 0 ? limits.getNodes() : Long.MAX_VALUE;
+        allocateTime(limits, searchColor);
+    }
+
+    /**
+     * Forgets everything learned in earlier searches, e.g. before a new game. Afterwards a
+     * single-threaded search with a depth or node limit gives the same result every time.
+     */
+    public void clearHash() {
+        table.clear();
+
+        for (Search search : searches) {
+            search.getPawnTable().clear();
+            search.clearHistory();
+        }
+    }
+
+    /**
+     * Called by each search thread every so often to check whether it has to stop.
+     */
+    boolean shouldStop() {
+        return stopped || totalNodes() >= nodeLimit || elapsedMillis() >= hardTimeLimit;
+    }
+
+    /**
+     * Called by the main search thread after each depth to check whether there's time for another.
+     */
+    boolean timeForAnotherDepth() {
+        return !stopped && totalNodes() < nodeLimit && elapsedMillis() < softTimeLimit;
+    }
+
+    long elapsedMillis() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    long totalNodes() {
+        long nodes = 0;
+
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * @return The number of positions each thread searched in the last search, with the main
+     * thread first.
+     */
+    public long[] getThreadNodes() {
+        long[] nodes = new long[searches.length];
+
+        for (int i = 0; i < searches.length; i++) {
+            nodes[i] = searches[i].getNodes();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * @return The number of beta cutoffs in the last search, over all threads.
+     */
+    public long getCutoffs() {
+        long cutoffs = 0;
+
+        for (Search search : searches) {
+            cutoffs += search.getCutoffs();
+        }
+
+        return cutoffs;
+    }
+
+    /**
+     * @return The share of beta cutoffs in the last search that came from the first move tried,
+     * from 0 to 1. The better the moves are ordered, the closer this gets to 1.
+     */
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+
+        for (Search search : searches) {
+            cutoffs += search.getCutoffs();
+            firstMoveCutoffs += search.getFirstMoveCutoffs();
+        }
+
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * @return The number of pawn structure lookups in the last search, over all threads, that
+     * found the structure in the pawn hash table.
+     */
+    public long getPawnTableHits() {
+        long hits = 0;
+
+        for (Search search : searches) {
+            hits += search.getPawnTable().getHits();
+        }
+
+        return hits;
+    }
+
+    /**
+     * @return The number of pawn structure lookups in the last search, over all threads, that
+     * had to work the score out.
+     */
+    public long getPawnTableMisses() {
+        long misses = 0;
+
+        for (Search search : searches) {
+            misses += search.getPawnTable().getMisses();
+        }
+
+        return misses;
+    }
+
+    // Getters and setters
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    public void setHashSize(int megabytes) {
+        table.resize(megabytes);
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
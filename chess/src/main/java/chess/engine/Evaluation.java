@@ -0,0 +1,145 @@
+package chess.engine;
+
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+import chess.Position;
+
+/**
+ * Scores positions for the search. The score is in centipawns (hundredths of a pawn) from
+ * the point of view of the side to move, so a positive score means that side is ahead.
+ *
+ * The score is tapered: the position keeps separate middlegame and endgame totals of the
+ * material and piece-square values, and these are blended by the game phase, so the
+ * evaluation moves smoothly from one to the other as pieces come off the board. Since the
+ * position keeps the totals up to date as moves are made, evaluating them takes constant time.
+ *
+ * On top of that come penalties for doubled and isolated pawns and bonuses for passed pawns.
+ * These only depend on the pawns, so they are cached in a {@link PawnHashTable}.
+ * @see PieceSquareTables
+ * @author Haris Mehuljic
+ */
+public final class Evaluation {
+    // Indexed by piece type. The king has no value since it can never be captured.
+    public static final int[] PIECE_VALUES = PieceSquareTables.MIDGAME_VALUES;
+
+    // Pawn structure terms, packed the same way as the piece-square values.
+    private static final int DOUBLED_PAWN = PieceSquareTables.pack(-10, -20);
+    private static final int ISOLATED_PAWN = PieceSquareTables.pack(-10, -15);
+    private static final int[] PASSED_PAWN = { // Indexed by the pawn's row counted from its own side, so 6 is one step from promoting.
+        0,
+        PieceSquareTables.pack(5, 10),
+        PieceSquareTables.pack(10, 20),
+        PieceSquareTables.pack(15, 35),
+        PieceSquareTables.pack(25, 60),
+        PieceSquareTables.pack(40, 90),
+        PieceSquareTables.pack(60, 130),
+        0
+    };
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // The squares in front of a pawn on its own and the neighboring files. A pawn is passed if no enemy pawn stands there.
+    private static final long[][] PASSED_MASKS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = FILE_A << file;
+        }
+
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+
+        for (int square = 0; square < 64; square++) {
+            long span = FILES[square & 7] | ADJACENT_FILES[square & 7];
+            int row = square >>> 3;
+            PASSED_MASKS[ChessPiece.WHITE][square] = row == 7 ? 0 : span & (-1L << ((row + 1) * 8));
+            PASSED_MASKS[ChessPiece.BLACK][square] = span & ((1L << (row * 8)) - 1);
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * Scores a position without a pawn hash table, working out the pawn structure every time.
+     * @param position The position to score.
+     * @return The score for the side to move.
+     */
+    public static int evaluate(Position position) {
+        return evaluate(position, null);
+    }
+
+    /**
+     * @param position The position to score.
+     * @param pawnTable The cache for pawn structure scores, or null to not use one.
+     * @return The score for the side to move.
+     */
+    public static int evaluate(Position position, PawnHashTable pawnTable) {
+        int packed = position.score() + pawnScore(position, pawnTable);
+
+        int phase = Math.min(position.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (PieceSquareTables.midgame(packed) * phase + PieceSquareTables.endgame(packed) * (PieceSquareTables.MAX_PHASE - phase))
+            / PieceSquareTables.MAX_PHASE;
+
+        return position.sideToMove() == ChessPiece.WHITE ? score : -score;
+    }
+
+    /**
+     * @return The packed pawn structure score for white, from the table if it's there.
+     */
+    private static int pawnScore(Position position, PawnHashTable pawnTable) {
+        if (pawnTable == null) {
+            return evaluatePawns(position);
+        }
+
+        long key = position.pawnKey();
+        int index = pawnTable.probe(key);
+
+        if (index >= 0) {
+            return pawnTable.score(index);
+        }
+
+        int score = evaluatePawns(position);
+        pawnTable.store(key, score);
+        return score;
+    }
+
+    /**
+     * Works out the doubled, isolated and passed pawn terms for both sides.
+     * @return The packed score for white.
+     */
+    static int evaluatePawns(Position position) {
+        return evaluatePawns(position, ChessPiece.WHITE) - evaluatePawns(position, ChessPiece.BLACK);
+    }
+
+    private static int evaluatePawns(Position position, int color) {
+        long ours = position.pieces(ChessPiece.PAWN, color);
+        long theirs = position.pieces(ChessPiece.PAWN, color ^ 1);
+        int score = 0;
+
+        for (int file = 0; file < 8; file++) {
+            int count = Long.bitCount(ours & FILES[file]);
+
+            if (count > 1) {
+                score += DOUBLED_PAWN * (count - 1);
+            }
+        }
+
+        for (long pawns = ours; pawns != 0; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+
+            if ((ours & ADJACENT_FILES[square & 7]) == 0) {
+                score += ISOLATED_PAWN;
+            }
+
+            if ((theirs & PASSED_MASKS[color][square]) == 0) {
+                int row = color == ChessPiece.WHITE ? square >>> 3 : 7 - (square >>> 3);
+                score += PASSED_PAWN[row];
+            }
+        }
+
+        return score;
+    }
+}
@@ -0,0 +1,247 @@
+package chess.engine;
+
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+
+/**
+ * Hands out the moves of a position one at a time, best guesses first, so that alpha-beta
+ * search finds a cutoff as early as possible. The moves come in stages:
+ * <ol>
+ *  <li>The hash move, the best move found the last time the position was searched</li>
+ *  <li>Captures and promotions, taking the most valuable piece with the least valuable one
+ *      first (MVV-LVA)</li>
+ *  <li>The killer moves, quiet moves that caused a cutoff at the same ply elsewhere in the tree</li>
+ *  <li>The other quiet moves, ordered by the history table, which counts how often each
+ *      move has caused cutoffs anywhere in the tree</li>
+ *  <li>The captures that lose material according to static exchange evaluation, which were
+ *      held back from the captures stage</li>
+ * </ol>
+ * In quiescence search, only the captures stage is gone through, and losing captures are
+ * left out altogether.
+ * Each stage's moves are only generated once the stages before it have run out, so a cutoff
+ * from the hash move or a capture saves generating the quiet moves at all. Within a stage,
+ * the best remaining move is picked on each call instead of sorting them all, since after a
+ * cutoff the rest are never needed.
+ *
+ * Moves are pseudo-legal, so the caller still has to check that they don't leave the king in check.
+ * One picker is kept for each ply of the search and reused for every position at that ply.
+ * @see https://www.chessprogramming.org/Move_Ordering
+ * @author Haris Mehuljic
+ */
+class MovePicker {
+    // Stages, in the order they are gone through.
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int BAD_CAPTURES = 7;
+    private static final int DONE = 8;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private int count;
+    private int index;
+
+    private final int[] badCaptures = new int[MoveGenerator.MAX_MOVES];
+    private int badCaptureCount;
+    private boolean quiescence;
+
+    private Position position;
+    private int[][] history;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int stage;
+
+    /**
+     * Starts handing out the moves of a new position.
+     * @param position The position to pick moves in. It has to stay the same between calls to {@link #next()}.
+     * @param hashMove The best move from the transposition table, or {@link Move#NONE}.
+     * @param firstKiller The latest killer move at this ply, or {@link Move#NONE}.
+     * @param secondKiller The killer move before it, or {@link Move#NONE}.
+     * @param history The history scores, indexed by piece code and destination square.
+     */
+    void init(Position position, int hashMove, int firstKiller, int secondKiller, int[][] history) {
+        this.position = position;
+        this.history = history;
+        this.hashMove = MoveGenerator.isPseudoLegal(position, hashMove) ? hashMove : Move.NONE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        quiescence = false;
+        badCaptureCount = 0;
+        stage = HASH_MOVE;
+    }
+
+    /**
+     * Starts handing out only the captures and promotions of a new position that don't lose
+     * material, for quiescence search.
+     * @param position The position to pick moves in. It has to stay the same between calls to {@link #next()}.
+     */
+    void initQuiescence(Position position) {
+        this.position = position;
+        hashMove = Move.NONE;
+        firstKiller = Move.NONE;
+        secondKiller = Move.NONE;
+        quiescence = true;
+        badCaptureCount = 0;
+        stage = GENERATE_CAPTURES;
+    }
+
+    /**
+     * @return The next move to try, or {@link Move#NONE} once every move has been handed out.
+     */
+    int next() {
+        switch (stage) {
+            case HASH_MOVE:
+                stage = GENERATE_CAPTURES;
+
+                if (hashMove != Move.NONE) {
+                    return hashMove;
+                }
+                // Fall through
+
+            case GENERATE_CAPTURES:
+                count = MoveGenerator.generateCaptures(position, position.sideToMove(), moves, 0);
+                index = 0;
+
+                for (int i = 0; i < count; i++) {
+                    scores[i] = captureScore(moves[i]);
+                }
+
+                stage = CAPTURES;
+                // Fall through
+
+            case CAPTURES:
+                while (index < count) {
+                    int move = pickBest();
+
+                    if (move == hashMove) {
+                        continue;
+                    }
+
+                    // Losing captures are kept for after the quiet moves, or dropped in quiescence search.
+                    if (!StaticExchange.isAtLeast(position, move, 0)) {
+                        if (!quiescence) {
+                            badCaptures[badCaptureCount++] = move;
+                        }
+
+                        continue;
+                    }
+
+                    return move;
+                }
+
+                if (quiescence) {
+                    stage = DONE;
+                    return Move.NONE;
+                }
+
+                stage = FIRST_KILLER;
+                // Fall through
+
+            case FIRST_KILLER:
+                stage = SECOND_KILLER;
+
+                if (isUsableKiller(firstKiller)) {
+                    return firstKiller;
+                }
+                // Fall through
+
+            case SECOND_KILLER:
+                stage = GENERATE_QUIETS;
+
+                if (isUsableKiller(secondKiller)) {
+                    return secondKiller;
+                }
+                // Fall through
+
+            case GENERATE_QUIETS:
+                count = MoveGenerator.generateQuietMoves(position, position.sideToMove(), moves, 0);
+                index = 0;
+
+                for (int i = 0; i < count; i++) {
+                    scores[i] = history[Move.piece(moves[i])][Move.to(moves[i])];
+                }
+
+                stage = QUIETS;
+                // Fall through
+
+            case QUIETS:
+                while (index < count) {
+                    int move = pickBest();
+
+                    // These were already handed out in earlier stages.
+                    if (move != hashMove && move != firstKiller && move != secondKiller) {
+                        return move;
+                    }
+                }
+
+                stage = BAD_CAPTURES;
+                index = 0;
+                // Fall through
+
+            case BAD_CAPTURES:
+                if (index < badCaptureCount) {
+                    return badCaptures[index++];
+                }
+
+                stage = DONE;
+                // Fall through
+
+            default:
+                return Move.NONE;
+        }
+    }
+
+    /**
+     * Swaps the highest scoring of the remaining moves to the front of them and hands it out.
+     */
+    private int pickBest() {
+        int best = index;
+
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        int move = moves[best];
+        moves[best] = moves[index];
+        scores[best] = scores[index];
+        moves[index] = move;
+        index++;
+
+        return move;
+    }
+
+    /**
+     * Killers come from other positions, so they have to be checked before they're tried.
+     * Captures and promotions are never killers, since they were already tried in their own stage.
+     */
+    private boolean isUsableKiller(int killer) {
+        return killer != hashMove && !Move.isCapture(killer) && !Move.isPromotion(killer)
+            && MoveGenerator.isPseudoLegal(position, killer);
+    }
+
+    /**
+     * Scores a capture by the value of the captured piece, then by the value of the capturing
+     * piece, lowest first. Promoting to a queen counts the same as capturing one.
+     */
+    private static int captureScore(int move) {
+        int score = ChessPiece.typeOf(Move.captured(move)) * 8 - ChessPiece.typeOf(Move.piece(move));
+
+        if (Move.promotion(move) == ChessPiece.QUEEN) {
+            score += ChessPiece.QUEEN * 8;
+        }
+        else if (Move.isPromotion(move)) {
+            score -= ChessPiece.QUEEN * 8; // Promoting to anything but a queen is almost never the best move.
+        }
+
+        return score;
+    }
+}
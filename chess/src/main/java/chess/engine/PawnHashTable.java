@@ -0,0 +1,111 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A small fixed-size cache of pawn structure scores, looked up by the pawn-only hash of a
+ * position. The pawns only change when a pawn moves or is captured, so most positions in a
+ * search share their pawn structure with many others, and the score only has to be worked
+ * out the first time.
+ *
+ * Each search thread has its own table, so it needs no synchronization. When two pawn
+ * structures fall on the same entry, the newer one replaces the older.
+ * @author Haris Mehuljic
+ */
+public class PawnHashTable {
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * @param entries The number of entries. It's rounded down to a power of two.
+     */
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        scores = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Looks up a pawn structure, counting the lookup as a hit or a miss.
+     * @param pawnKey The pawn-only hash of the position.
+     * @return The index of the entry for the pawn structure if it's in the table, or -1.
+     * The score is then read with {@link #score(int)}.
+     */
+    public int probe(long pawnKey) {
+        int index = (int) pawnKey & mask;
+
+        // An empty entry has a key of 0, which is also the key with no pawns on the board. The stored score of 0 is right for that too.
+        if (keys[index] == pawnKey) {
+            hits++;
+            return index;
+        }
+
+        misses++;
+        return -1;
+    }
+
+    /**
+     * @param index An index returned by {@link #probe(long)}.
+     * @return The packed middlegame and endgame pawn structure score stored there, for white.
+     */
+    public int score(int index) {
+        return scores[index];
+    }
+
+    /**
+     * Stores the score of a pawn structure, replacing whatever was in its entry.
+     * @param pawnKey The pawn-only hash of the position.
+     * @param score The packed middlegame and endgame score, for white.
+     */
+    public void store(long pawnKey, int score) {
+        int index = (int) pawnKey & mask;
+        keys[index] = pawnKey;
+        scores[index] = score;
+    }
+
+    /**
+     * Empties the table and resets the hit and miss counters.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(scores, 0);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * @return The share of lookups that found their pawn structure, from 0 to 1.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // Getters
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,188 @@
+package chess.engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+
+/**
+ * A computer opponent for a person, which thinks on the person's time. After it moves, it
+ * guesses the reply from the line its search expected, and keeps searching the position after
+ * that reply in the background while the person thinks, which is called pondering.
+ *
+ * If the person makes the expected move (a ponder hit), the background search is given the
+ * time for the move and carries on, with the time spent pondering counted towards it. When
+ * the person took longer than that, the reply is ready straight away. If they make any other
+ * move (a ponder miss), the background search is stopped and waited for before a new search
+ * starts, so the two never run at the same time. What the background search stored in the
+ * transposition table stays there either way.
+ *
+ * A player is used from one thread, apart from its own background search.
+ * @see https://www.chessprogramming.org/Pondering
+ * @author Haris Mehuljic
+ */
+public class PonderingPlayer {
+    private final Engine engine;
+    private final SearchLimits limits;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final ExecutorService ponderThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ponder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<SearchInfo> ponderSearch;
+    private long ponderHash; // The position the background search expects, once the person has moved.
+    private SearchInfo lastInfo;
+    private int ponderHits;
+    private int ponderMisses;
+
+    // Set from the player's thread and seen by the search thread's listener after each depth.
+    private volatile boolean ponderHit;
+    private volatile boolean ponderCancelled;
+
+    /**
+     * @param engine The engine to search with. It's only used by this player.
+     * @param limits How long to think about each move. Time and node limits work with pondering, depth limits don't.
+     */
+    public PonderingPlayer(Engine engine, SearchLimits limits) {
+        this.engine = engine;
+        this.limits = limits;
+
+        // A ponder hit or miss can come before the background search has started and set up its own limits, so it's applied again after each depth.
+        engine.setListener(info -> {
+            if (ponderCancelled) {
+                engine.stop();
+            }
+            else if (ponderHit) {
+                engine.ponderHit(limits);
+            }
+        });
+    }
+
+    /**
+     * Finds the move to play, using the background search if it was searching this position.
+     * @param position The position after the person's move. It isn't changed.
+     * @return The move to play, or {@link Move#NONE} if there are no legal moves.
+     */
+    public int findMove(Position position) {
+        SearchInfo info = null;
+
+        if (ponderSearch != null && position.hash() == ponderHash) {
+            ponderHit = true;
+            engine.ponderHit(limits);
+            info = waitForPonderSearch();
+            ponderHits++;
+        }
+        else if (ponderSearch != null) {
+            stopPondering();
+            ponderMisses++;
+        }
+
+        if (info == null) {
+            info = engine.bestMove(position, limits);
+        }
+
+        lastInfo = info;
+        return info.getBestMove();
+    }
+
+    /**
+     * Starts searching in the background from the position after the reply the last search
+     * expected. Nothing is started if it didn't expect one.
+     * @param position The position after this player's move. It's copied, so it can be changed afterwards.
+     */
+    public void startPondering(Position position) {
+        int expected = lastInfo != null ? lastInfo.getPonderMove() : Move.NONE;
+
+        if (expected == Move.NONE || position.historySize() == Position.MAX_HISTORY
+            || !isLegal(position, expected)) {
+            return;
+        }
+
+        Position ponderPosition = new Position(position);
+        ponderPosition.makeMove(expected);
+        ponderHash = ponderPosition.hash();
+        ponderHit = false;
+        ponderCancelled = false;
+
+        // With no limits, the search runs until it's given some or is stopped.
+        ponderSearch = ponderThread.submit(() -> engine.bestMove(ponderPosition, new SearchLimits()));
+    }
+
+    /**
+     * Stops the background search, if there is one, and waits for it to end.
+     */
+    public void stopPondering() {
+        if (ponderSearch != null) {
+            ponderCancelled = true;
+            engine.stop();
+            waitForPonderSearch();
+        }
+    }
+
+    /**
+     * Stops any background search and shuts down the threads.
+     */
+    public void close() {
+        stopPondering();
+        ponderThread.shutdownNow();
+        engine.close();
+    }
+
+    /**
+     * @return The move the engine expects the person to reply with, or {@link Move#NONE}.
+     */
+    public int getExpectedReply() {
+        return lastInfo != null ? lastInfo.getPonderMove() : Move.NONE;
+    }
+
+    /**
+     * @return The result of the search behind the last move found, or null before the first one.
+     */
+    public SearchInfo getLastInfo() {
+        return lastInfo;
+    }
+
+    public int getPonderHits() {
+        return ponderHits;
+    }
+
+    public int getPonderMisses() {
+        return ponderMisses;
+    }
+
+    private SearchInfo waitForPonderSearch() {
+        try {
+            return ponderSearch.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("The background search failed.", e.getCause());
+        }
+        finally {
+            ponderSearch = null;
+            ponderHit = false;
+            ponderCancelled = false;
+        }
+    }
+
+    private boolean isLegal(Position position, int move) {
+        int count = MoveGenerator.generateLegalMoves(position, moveBuffer);
+
+        for (int i = 0; i < count; i++) {
+            if (moveBuffer[i] == move) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
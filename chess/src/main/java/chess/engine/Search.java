@@ -0,0 +1,487 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+
+/**
+ * A negamax alpha-beta search with iterative deepening. It searches a copy of the position
+ * one depth at a time, starting each new depth with a narrow "aspiration window" around the
+ * previous score, and uses the transposition table both to skip positions it has already
+ * searched deeply enough and to try their best move first. The other moves are ordered by a
+ * {@link MovePicker}, using killer moves and a history table that the search keeps up to date.
+ *
+ * Once the depth runs out, a quiescence search keeps trying captures until the position is
+ * quiet, so that the evaluation is never taken in the middle of an exchange.
+ *
+ * Searches are started through {@link Engine}, which owns the transposition table and
+ * decides when a search has to stop.
+ * @see https://www.chessprogramming.org/Alpha-Beta
+ * @author Haris Mehuljic
+ */
+class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 31000;
+    public static final int MATE = 30000;
+    public static final int MATE_BOUND = MATE - MAX_PLY; // Scores beyond this are forced checkmates.
+    public static final int DRAW = 0;
+
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int MAX_HISTORY = 1 << 20; // Once a history score reaches this, all of them are halved.
+
+    /* Helper threads skip some depths so that they don't all search the same depth in step with
+     * the main thread. Helper i skips depth d when ((d + SKIP_PHASE[i]) / SKIP_SIZE[i]) is odd, so
+     * the helpers spread over the next few depths and fill the shared table ahead of the main thread.
+     */
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final int id; // 0 for the main thread, which decides when to stop, and 1 and up for helpers.
+    private final Engine engine;
+    private final TranspositionTable table;
+    private final PawnHashTable pawnTable = new PawnHashTable();
+    private Position position;
+
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2]; // The last two quiet moves that caused a cutoff at each ply.
+    private final int[][] history = new int[16][64]; // Indexed by piece code and destination square.
+    private final int[][] principalVariations = new int[MAX_PLY + 1][MAX_PLY + 1]; // A triangular table of the best line from each ply.
+    private final int[] principalVariationLengths = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private boolean aborted;
+
+    // Move ordering statistics: how many beta cutoffs there were, and how many of them came from the first move tried.
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    Search(int id, Engine engine, TranspositionTable table) {
+        this.id = id;
+        this.engine = engine;
+        this.table = table;
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            movePickers[ply] = new MovePicker();
+        }
+    }
+
+    /**
+     * Searches a position one depth at a time until the engine says to stop.
+     * @param root The position to search. It isn't changed, since the search works on a copy.
+     * @param maxDepth The deepest depth to search to.
+     * @param listener Gets a report after each depth is finished, or null.
+     * @return The result of the deepest depth that was finished. For helper threads, this may
+     * not be the deepest depth searched so far by all threads.
+     */
+    SearchInfo iterate(Position root, int maxDepth, SearchListener listener) {
+        // Only the moves that a repetition could go back to are kept, so the search always has room for MAX_PLY more.
+        position = new Position(root, Math.min(root.halfmoveClock(), Position.MAX_HISTORY - MAX_PLY));
+        aborted = false;
+
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+
+        // History from the last search still says something about this one, but shouldn't outweigh what this one finds.
+        for (int[] pieceHistory : history) {
+            for (int square = 0; square < 64; square++) {
+                pieceHistory[square] /= 8;
+            }
+        }
+
+        // If the search is stopped before the first depth is done, any legal move is better than none.
+        int legalCount = MoveGenerator.generateLegalMoves(position, rootMoves);
+        SearchInfo result = new SearchInfo(0, DRAW, 0, 0, legalCount > 0 ? new int[] {rootMoves[0]} : new int[0]);
+
+        if (legalCount == 0) {
+            int score = position.isKingAttacked(position.sideToMove()) ? -MATE : DRAW;
+            return new SearchInfo(0, score, 0, 0, new int[0]);
+        }
+
+        int score = 0;
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            if (id > 0 && depth > 1 && skipDepth(depth)) {
+                continue;
+            }
+
+            score = aspirationSearch(depth, score);
+
+            if (aborted) {
+                break;
+            }
+
+            int[] principalVariation = new int[principalVariationLengths[0]];
+            System.arraycopy(principalVariations[0], 0, principalVariation, 0, principalVariation.length);
+            result = new SearchInfo(depth, score, engine.totalNodes(), engine.elapsedMillis(), principalVariation);
+
+            if (listener != null) {
+                listener.onSearchProgress(result);
+            }
+
+            // Only the main thread decides whether there's time for another depth. Helpers keep going until they're stopped.
+            if (id == 0 && !engine.timeForAnotherDepth()) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private boolean skipDepth(int depth) {
+        int helper = (id - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[helper]) / SKIP_SIZE[helper]) % 2 != 0;
+    }
+
+    /**
+     * Searches with a small window around the previous score, which cuts off more of the tree,
+     * and widens the window whenever the score lands outside it.
+     */
+    private int aspirationSearch(int depth, int previousScore) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+
+        // The first few depths are too unstable for the previous score to be a good guess.
+        if (depth >= 4) {
+            alpha = Math.max(previousScore - delta, -INFINITY);
+            beta = Math.min(previousScore + delta, INFINITY);
+        }
+
+        while (true) {
+            int score = negamax(alpha, beta, depth, 0);
+
+            if (aborted) {
+                return score;
+            }
+
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            }
+            else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            }
+            else {
+                return score;
+            }
+
+            delta *= 2;
+        }
+    }
+
+    /**
+     * Finds the score of the position by trying every move and assuming the opponent always
+     * replies with their best move. Any line that is already worse than one found earlier
+     * (outside the alpha-beta window) is cut off without looking at the rest of its moves.
+     * @param alpha The score the side to move is already guaranteed.
+     * @param beta The score the opponent is already guaranteed, so anything above it won't be allowed.
+     * @param depth The number of moves left to look ahead.
+     * @param ply The number of moves made since the root.
+     * @return The score for the side to move.
+     */
+    private int negamax(int alpha, int beta, int depth, int ply) {
+        principalVariationLengths[ply] = ply;
+
+        if ((++nodes & 1023) == 0 && engine.shouldStop()) {
+            aborted = true;
+        }
+
+        if (aborted) {
+            return 0;
+        }
+
+        boolean root = ply == 0;
+
+        if (!root) {
+            if (position.isFiftyMoveRule() || position.isRepetition()) {
+                return DRAW;
+            }
+
+            // No line can be better than getting checkmated later or giving checkmate sooner than has already been found.
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+
+            if (ply >= MAX_PLY - 1) {
+                return Evaluation.evaluate(position, pawnTable);
+            }
+        }
+
+        int us = position.sideToMove();
+        boolean inCheck = position.isKingAttacked(us);
+
+        // Looking one move further when in check keeps the search from stopping in the middle of an attack.
+        if (inCheck) {
+            depth++;
+        }
+
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        long hash = position.hash();
+        long entry = table.probe(hash);
+        int hashMove = Move.NONE;
+
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+
+            if (!root && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MovePicker picker = movePickers[ply];
+        picker.init(position, hashMove, killers[ply][0], killers[ply][1], history);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        int legalCount = 0;
+        int move;
+
+        while ((move = picker.next()) != Move.NONE) {
+            position.makeMove(move);
+
+            // Moves that leave the king in check aren't legal.
+            if (position.isKingAttacked(us)) {
+                position.unmakeMove();
+                continue;
+            }
+
+            legalCount++;
+            int score = -negamax(-beta, -alpha, depth - 1, ply + 1);
+            position.unmakeMove();
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+
+                    if (score >= beta) {
+                        recordCutoff(move, depth, ply, legalCount);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legalCount == 0) {
+            return inCheck ? -MATE + ply : DRAW; // Checkmate or stalemate
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+            : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(hash, bestMove, scoreToTable(bestScore, ply), depth, bound);
+
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures and promotions, so that the score isn't taken while pieces are
+     * still hanging. The side to move can also "stand pat" by not capturing at all, so the
+     * evaluation of the position itself is a lower bound on its score. Captures that lose
+     * material by static exchange evaluation are skipped, which keeps the search small.
+     * @param alpha The score the side to move is already guaranteed.
+     * @param beta The score the opponent is already guaranteed.
+     * @param ply The number of moves made since the root.
+     * @return The score for the side to move.
+     * @see https://www.chessprogramming.org/Quiescence_Search
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        principalVariationLengths[ply] = ply;
+
+        if ((++nodes & 1023) == 0 && engine.shouldStop()) {
+            aborted = true;
+        }
+
+        if (aborted) {
+            return 0;
+        }
+
+        int standPat = Evaluation.evaluate(position, pawnTable);
+
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int us = position.sideToMove();
+        int bestScore = standPat;
+        MovePicker picker = movePickers[ply];
+        picker.initQuiescence(position);
+        int move;
+
+        while ((move = picker.next()) != Move.NONE) {
+            position.makeMove(move);
+
+            if (position.isKingAttacked(us)) {
+                position.unmakeMove();
+                continue;
+            }
+
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * Remembers a quiet move that caused a beta cutoff as a killer for this ply and raises its
+     * history score, so it's tried earlier next time.
+     */
+    private void recordCutoff(int move, int depth, int ply, int legalCount) {
+        cutoffs++;
+        if (legalCount == 1) {
+            firstMoveCutoffs++;
+        }
+
+        if (Move.isCapture(move) || Move.isPromotion(move)) {
+            return;
+        }
+
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        // Cutoffs deep in the tree save more work, so they count for more.
+        int[] pieceHistory = history[Move.piece(move)];
+        pieceHistory[Move.to(move)] += depth * depth;
+
+        if (pieceHistory[Move.to(move)] >= MAX_HISTORY) {
+            for (int[] scores : history) {
+                for (int square = 0; square < 64; square++) {
+                    scores[square] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the best line from this ply the move followed by the best line from the next ply.
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        int[] line = principalVariations[ply];
+        int[] next = principalVariations[ply + 1];
+        int length = principalVariationLengths[ply + 1];
+
+        line[ply] = move;
+        System.arraycopy(next, ply + 1, line, ply + 1, length - ply - 1);
+        principalVariationLengths[ply] = Math.max(length, ply + 1);
+    }
+
+    /**
+     * Mate scores count moves from the root, but the table is shared between positions at any
+     * ply, so they are stored counting from the position itself instead.
+     */
+    static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        else if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        else if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    /**
+     * Forgets the killer moves and the history table, so that nothing from earlier searches
+     * affects the next one.
+     */
+    void clearHistory() {
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            killers[ply][0] = Move.NONE;
+            killers[ply][1] = Move.NONE;
+        }
+
+        for (int[] pieceHistory : history) {
+            Arrays.fill(pieceHistory, 0);
+        }
+    }
+
+    void resetStatistics() {
+        nodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        pawnTable.resetStatistics();
+    }
+
+    /**
+     * @return The number of positions this thread has searched. Other threads may see a count
+     * that is slightly out of date.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The number of beta cutoffs this thread has had, for measuring the move ordering.
+     */
+    long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * @return How many of the beta cutoffs came from the first move tried.
+     */
+    long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+}
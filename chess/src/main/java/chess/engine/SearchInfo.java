@@ -0,0 +1,102 @@
+package chess.engine;
+
+import chess.Move;
+
+/**
+ * A report on the progress of a search, sent after each depth is finished and returned
+ * once the search is over.
+ * @author Haris Mehuljic
+ */
+public class SearchInfo {
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long timeMillis;
+    private final int[] principalVariation;
+
+    /**
+     * @param depth The depth that was searched to.
+     * @param score The score in centipawns from the point of view of the side to move.
+     * @param nodes The number of positions searched so far.
+     * @param timeMillis The time the search has taken so far.
+     * @param principalVariation The best line of play found, starting with the best move.
+     */
+    public SearchInfo(int depth, int score, long nodes, long timeMillis, int[] principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * @return The best move, or {@link Move#NONE} if there are no legal moves.
+     */
+    public int getBestMove() {
+        return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+    }
+
+    /**
+     * @return The move the search expects the opponent to reply with, or {@link Move#NONE}.
+     */
+    public int getPonderMove() {
+        return principalVariation.length > 1 ? principalVariation[1] : Move.NONE;
+    }
+
+    /**
+     * @return True if the score is a forced checkmate for either side.
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * @return The number of moves until checkmate, negative if the side to move is getting mated.
+     */
+    public int getMateIn() {
+        return score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2;
+    }
+
+    /**
+     * @return The number of positions searched per second.
+     */
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    /**
+     * @return The report in the form of a UCI "info" line, i.e.
+     * "info depth 6 score cp 35 nodes 81234 nps 1200000 time 67 pv e2e4 e7e5".
+     */
+    public String toString() {
+        String info = "info depth " + depth + " score " + (isMateScore() ? "mate " + getMateIn() : "cp " + score)
+            + " nodes " + nodes + " nps " + getNodesPerSecond() + " time " + timeMillis + " pv";
+
+        for (int move : principalVariation) {
+            info += " " + Move.toString(move);
+        }
+
+        return info;
+    }
+
+    // Getters
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation;
+    }
+}
@@ -0,0 +1,120 @@
+package chess.engine;
+
+/**
+ * The limits on how long a search may run. Any combination of limits can be set, and the
+ * search stops at whichever one it reaches first. A search with no limits set runs until
+ * it's told to stop.
+ * @author Haris Mehuljic
+ */
+public class SearchLimits {
+    private int depth;
+    private long moveTime;
+    private long nodes;
+    private long whiteTime;
+    private long blackTime;
+    private long whiteIncrement;
+    private long blackIncrement;
+    private int movesToGo;
+
+    /**
+     * @param depth The depth to search to.
+     * @return Limits that only stop the search at that depth.
+     */
+    public static SearchLimits depth(int depth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setDepth(depth);
+        return limits;
+    }
+
+    /**
+     * @param moveTime The time to search for, in milliseconds.
+     * @return Limits that only stop the search after that time.
+     */
+    public static SearchLimits moveTime(long moveTime) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTime(moveTime);
+        return limits;
+    }
+
+    /**
+     * @param nodes The number of positions to search.
+     * @return Limits that only stop the search after that many nodes.
+     */
+    public static SearchLimits nodes(long nodes) {
+        SearchLimits limits = new SearchLimits();
+        limits.setNodes(nodes);
+        return limits;
+    }
+
+    /**
+     * @return True if the search has a clock to manage.
+     */
+    public boolean hasClock() {
+        return whiteTime > 0 || blackTime > 0;
+    }
+
+    // Getters and setters. A value of 0 means the limit isn't used.
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getMoveTime() {
+        return moveTime;
+    }
+
+    public void setMoveTime(long moveTime) {
+        this.moveTime = moveTime;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public long getWhiteTime() {
+        return whiteTime;
+    }
+
+    public void setWhiteTime(long whiteTime) {
+        this.whiteTime = whiteTime;
+    }
+
+    public long getBlackTime() {
+        return blackTime;
+    }
+
+    public void setBlackTime(long blackTime) {
+        this.blackTime = blackTime;
+    }
+
+    public long getWhiteIncrement() {
+        return whiteIncrement;
+    }
+
+    public void setWhiteIncrement(long whiteIncrement) {
+        this.whiteIncrement = whiteIncrement;
+    }
+
+    public long getBlackIncrement() {
+        return blackIncrement;
+    }
+
+    public void setBlackIncrement(long blackIncrement) {
+        this.blackIncrement = blackIncrement;
+    }
+
+    public int getMovesToGo() {
+        return movesToGo;
+    }
+
+    public void setMovesToGo(int movesToGo) {
+        this.movesToGo = movesToGo;
+    }
+}
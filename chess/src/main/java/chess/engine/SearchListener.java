@@ -0,0 +1,13 @@
+package chess.engine;
+
+/**
+ * Receives progress reports from a running search.
+ * @author Haris Mehuljic
+ */
+public interface SearchListener {
+    /**
+     * Called by the search thread each time a depth is finished.
+     * @param info The best line found so far and the search statistics.
+     */
+    void onSearchProgress(SearchInfo info);
+}
@@ -0,0 +1,129 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.ChessPiece;
+import chess.Move;
+import chess.Position;
+
+/**
+ * Static exchange evaluation (SEE) works out what a capture wins or loses once every piece
+ * attacking the square has had its turn to recapture, always recapturing with the least
+ * valuable piece first. It only looks at the one square, using the attack tables, so it's
+ * much cheaper than searching the captures. Sliding pieces lined up behind the ones that
+ * capture are found by taking the capturing pieces off the occupancy as the exchange goes on.
+ *
+ * Pins are ignored, so a pinned piece can take part in the exchange.
+ * @see https://www.chessprogramming.org/Static_Exchange_Evaluation
+ * @author Haris Mehuljic
+ */
+public final class StaticExchange {
+    private StaticExchange() {
+    }
+
+    /**
+     * Checks whether a move wins at least a certain amount of material once the exchange on
+     * its destination square is over. Instead of working out the full exchange, this stops as
+     * soon as one side can't do better by carrying on.
+     * @param position The position the move is made in.
+     * @param move The move to check.
+     * @param threshold The least material, in centipawns, that the move has to win.
+     * @return True if the exchange wins at least the threshold.
+     */
+    public static boolean isAtLeast(Position position, int move, int threshold) {
+        // Castling, en passant and promotions are rare enough to not be worth working out.
+        if (Move.flag(move) == Move.CASTLE || Move.flag(move) == Move.EN_PASSANT || Move.isPromotion(move)) {
+            return threshold <= 0;
+        }
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        // The balance so far, from the point of view of the side that has just captured, minus the threshold.
+        int swap = value(Move.captured(move)) - threshold;
+        if (swap < 0) {
+            return false; // Even if the piece can't be recaptured, the capture doesn't win enough.
+        }
+
+        swap = value(Move.piece(move)) - swap;
+        if (swap <= 0) {
+            return true; // Even losing the capturing piece still wins enough, which is always true for the king.
+        }
+
+        long occupied = position.occupied() ^ (1L << from) ^ (1L << to);
+        long attackers = position.attackersTo(to, occupied);
+        long diagonal = position.pieces(ChessPiece.BISHOP, ChessPiece.WHITE) | position.pieces(ChessPiece.BISHOP, ChessPiece.BLACK)
+            | position.pieces(ChessPiece.QUEEN, ChessPiece.WHITE) | position.pieces(ChessPiece.QUEEN, ChessPiece.BLACK);
+        long straight = position.pieces(ChessPiece.ROOK, ChessPiece.WHITE) | position.pieces(ChessPiece.ROOK, ChessPiece.BLACK)
+            | position.pieces(ChessPiece.QUEEN, ChessPiece.WHITE) | position.pieces(ChessPiece.QUEEN, ChessPiece.BLACK);
+        int side = ChessPiece.colorOf(Move.piece(move));
+        int result = 1; // 1 while the moving side is winning enough, flipped each time a recapture changes that.
+
+        while (true) {
+            side ^= 1;
+            attackers &= occupied;
+            long sideAttackers = attackers & position.colorOccupancy(side);
+
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            result ^= 1;
+
+            // Recapturing with the least valuable piece. Each capture can uncover a slider behind it.
+            long pieces;
+            if ((pieces = sideAttackers & position.pieces(ChessPiece.PAWN, side)) != 0) {
+                if ((swap = Evaluation.PIECE_VALUES[ChessPiece.PAWN] - swap) < result) {
+                    break;
+                }
+
+                occupied ^= pieces & -pieces;
+                attackers |= Attacks.bishop(to, occupied) & diagonal;
+            }
+            else if ((pieces = sideAttackers & position.pieces(ChessPiece.KNIGHT, side)) != 0) {
+                if ((swap = Evaluation.PIECE_VALUES[ChessPiece.KNIGHT] - swap) < result) {
+                    break;
+                }
+
+                occupied ^= pieces & -pieces;
+            }
+            else if ((pieces = sideAttackers & position.pieces(ChessPiece.BISHOP, side)) != 0) {
+                if ((swap = Evaluation.PIECE_VALUES[ChessPiece.BISHOP] - swap) < result) {
+                    break;
+                }
+
+                occupied ^= pieces & -pieces;
+                attackers |= Attacks.bishop(to, occupied) & diagonal;
+            }
+            else if ((pieces = sideAttackers & position.pieces(ChessPiece.ROOK, side)) != 0) {
+                if ((swap = Evaluation.PIECE_VALUES[ChessPiece.ROOK] - swap) < result) {
+                    break;
+                }
+
+                occupied ^= pieces & -pieces;
+                attackers |= Attacks.rook(to, occupied) & straight;
+            }
+            else if ((pieces = sideAttackers & position.pieces(ChessPiece.QUEEN, side)) != 0) {
+                if ((swap = Evaluation.PIECE_VALUES[ChessPiece.QUEEN] - swap) < result) {
+                    break;
+                }
+
+                occupied ^= pieces & -pieces;
+                attackers |= (Attacks.bishop(to, occupied) & diagonal) | (Attacks.rook(to, occupied) & straight);
+            }
+            else {
+                // Only the king is left. It can only recapture if the other side has nothing left to recapture it with.
+                return (attackers & ~position.colorOccupancy(side)) != 0 ? result == 0 : result == 1;
+            }
+        }
+
+        return result == 1;
+    }
+
+    /**
+     * @return The value of a piece for exchanges. The king counts as nothing, since a legal
+     * king capture can never be answered.
+     */
+    private static int value(int piece) {
+        return Evaluation.PIECE_VALUES[ChessPiece.typeOf(piece)];
+    }
+}
@@ -0,0 +1,223 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table remembering what the search has already found out about positions,
+ * looked up by their Zobrist hash. It's allocated once as a single long array, so it never
+ * grows and creates no objects while searching.
+ *
+ * Each entry takes two longs: the data (best move, score, depth, bound type and age) and the
+ * key XORed with the data. An entry is only used if XORing those two gives back the key being
+ * looked up. If two threads write the same entry at once and one thread's key ends up next to
+ * the other's data, the check fails and the entry is treated as missing. This means any number
+ * of search threads can share the table without locks.
+ *
+ * Entries are grouped into buckets of four, which fit in one 64-byte cache line. When a new
+ * result doesn't match any entry in its bucket, it replaces the entry that is least useful:
+ * the shallowest one, with entries left over from earlier searches counting as shallower. A
+ * result for a position that's already in the table only replaces it if it's at least as
+ * deep, is an exact score, or the entry is from an earlier search, so a quick look at a
+ * position never throws away a deeper search of it.
+ * @see https://www.chessprogramming.org/Shared_Hash_Table#Lockless
+ * @author Haris Mehuljic
+ */
+public class TranspositionTable {
+    // Bound types, telling how the stored score relates to the real score of the position.
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; // The real score is at least the stored score.
+    public static final int UPPER_BOUND = 3; // The real score is at most the stored score.
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int BYTES_PER_ENTRY = ENTRY_LONGS * Long.BYTES;
+
+    /* The data bits are laid out as:
+     *  bits  0-24  the best move
+     *  bits 25-40  the score, offset so that it's never negative
+     *  bits 41-48  the depth
+     *  bits 49-50  the bound type
+     *  bits 51-56  the age of the search that stored it
+     */
+    private static final int SCORE_SHIFT = 25;
+    private static final int DEPTH_SHIFT = 41;
+    private static final int BOUND_SHIFT = 49;
+    private static final int AGE_SHIFT = 51;
+    private static final int SCORE_OFFSET = 32768;
+    private static final int AGE_MASK = 0x3F;
+
+    private long[] table;
+    private int bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a table using up to the given amount of memory.
+     * @param megabytes The memory to use. It's rounded down to a power of two number of entries.
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Reallocates the table with a new size, throwing away everything in it.
+     * @param megabytes The memory to use.
+     */
+    public void resize(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB, not " + megabytes);
+        }
+
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (BYTES_PER_ENTRY * BUCKET_ENTRIES));
+        buckets = Math.max(1, Math.min(buckets, 1L << 27)); // Arrays are indexed by int, so the table tops out at 8 GB.
+
+        table = null; // Lets the old table be collected before the new one is allocated.
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /**
+     * Marks the start of a new search. Entries stored before this are kept, but get replaced
+     * more easily than the ones the new search stores.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Looks for an entry for a position.
+     * @param key The Zobrist hash of the position.
+     * @return The entry's data, which can be read with {@link #move(long)} and the other accessors,
+     * or 0 if the position isn't in the table.
+     */
+    public long probe(long key) {
+        long[] table = this.table;
+        int bucket = bucketIndex(key);
+
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+
+            if ((table[i] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Stores what the search found out about a position.
+     * @param key The Zobrist hash of the position.
+     * @param move The best move found, or {@link chess.Move#NONE}.
+     * @param score The score of the position, which has to fit in 16 bits.
+     * @param depth The depth the position was searched to.
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long[] table = this.table;
+        int bucket = bucketIndex(key);
+        int currentAge = age;
+        int replace = bucket;
+        int lowestValue = Integer.MAX_VALUE;
+
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+
+            if (data == 0) {
+                replace = i;
+                break;
+            }
+
+            int entryAge = (int) (data >>> AGE_SHIFT) & AGE_MASK;
+
+            // An entry for the same position is only overwritten by a result that's at least as deep, an exact
+            // score or anything from a newer search, and keeps its move if there's no new one.
+            if ((table[i] ^ data) == key) {
+                if (depth < depth(data) && bound != EXACT && entryAge == currentAge) {
+                    return;
+                }
+
+                if (move == 0) {
+                    move = move(data);
+                }
+
+                replace = i;
+                break;
+            }
+
+            // Each search that has happened since an entry was stored makes it count as 8 plies shallower.
+            int value = depth(data) - 8 * ((currentAge - entryAge) & AGE_MASK);
+
+            if (value < lowestValue) {
+                lowestValue = value;
+                replace = i;
+            }
+        }
+
+        long data = (move & 0x1FFFFFFL)
+            | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+            | ((long) Math.min(Math.max(depth, 0), 255) << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) currentAge << AGE_SHIFT);
+
+        table[replace] = key ^ data;
+        table[replace + 1] = data;
+    }
+
+    /**
+     * Estimates how full the table is by looking at the first thousand entries.
+     * @return The number of entries out of a thousand that were stored by the current search.
+     */
+    public int hashfull() {
+        long[] table = this.table;
+        int used = 0;
+        int sampled = Math.min(1000, table.length / ENTRY_LONGS);
+
+        for (int i = 0; i < sampled; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+
+            if (data != 0 && ((data >>> AGE_SHIFT) & AGE_MASK) == age) {
+                used++;
+            }
+        }
+
+        return used * 1000 / Math.max(1, sampled);
+    }
+
+    /**
+     * @return The number of entries the table can hold.
+     */
+    public long capacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    private int bucketIndex(long key) {
+        // The low bits of the key pick the bucket, since they are as random as any others.
+        return ((int) key & bucketMask) * BUCKET_LONGS;
+    }
+
+    // Reading the fields out of an entry's data
+    public static int move(long data) {
+        return (int) (data & 0x1FFFFFF);
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+}
@@ -0,0 +1,342 @@
+package chess.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveParser;
+import chess.Perft;
+import chess.Position;
+
+/**
+ * Runs the engine under the Universal Chess Interface, the text protocol chess GUIs and
+ * tournament managers use to talk to engines. The supported commands are:
+ * <pre>
+ *  uci                                  Names the engine and lists its options
+ *  isready                              Answered with "readyok"
+ *  setoption name Hash value mb         Sets the transposition table size
+ *  setoption name Threads value n       Sets the number of search threads
+ *  ucinewgame                           Forgets what was learned in the last game
+ *  position [startpos | fen f] [moves]  Sets up the position to search, in coordinate notation
+ *  go [depth n] [movetime ms] [nodes n] [wtime ms] [btime ms] [winc ms] [binc ms] [movestogo n] [infinite]
+ *                                       Starts searching, printing an "info" line for each depth
+ *                                       and a "bestmove" line at the end
+ *  stop                                 Ends the search, which still prints its best move
+ *  quit                                 Ends the program
+ * </pre>
+ * Searches run on their own thread, and the thread reading the commands never waits for one
+ * unless the command needs the engine, like "position" or "setoption". So "stop" and
+ * "isready" are answered right away, however deep the search is. Unknown commands are ignored,
+ * as the protocol asks.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.engine.Uci   Reads UCI commands from standard input and answers on standard output
+ * </pre>
+ * @see https://www.chessprogramming.org/UCI
+ * @author Haris Mehuljic
+ */
+public class Uci {
+    public static final String NAME = "cli-chess";
+    public static final String AUTHOR = "Haris Mehuljic";
+
+    // The limits advertised for the options.
+    private static final int MAX_HASH_MEGABYTES = 8192;
+    private static final int MAX_THREADS = 256;
+
+    private final Engine engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, 1);
+    private final Position position = Position.startingPosition();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final PrintStream out;
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<?> search;
+    private volatile boolean stopRequested;
+    private volatile SearchInfo lastInfo; // The last depth the current search finished, kept in case it fails.
+
+    /**
+     * @param out Where the answers are written.
+     */
+    public Uci(PrintStream out) {
+        this.out = out;
+        engine.setListener(info -> {
+            out.println(info);
+            lastInfo = info;
+
+            // A stop that came in before the search had started is only seen by the engine once it's running.
+            if (stopRequested) {
+                engine.stop();
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        new Uci(System.out).run(System.in);
+    }
+
+    /**
+     * Reads and carries out commands until "quit" or the end of the input.
+     * @param in Where the commands come from.
+     * @throws IOException If the commands can't be read.
+     */
+    public void run(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!execute(line.trim())) {
+                    break;
+                }
+            }
+        }
+        finally {
+            stopSearch();
+            waitForSearch();
+            searchThread.shutdownNow();
+            engine.close();
+        }
+    }
+
+    /**
+     * Carries out one command.
+     * @param line The command line, without surrounding whitespace.
+     * @return False once the command is "quit".
+     */
+    public boolean execute(String line) {
+        String[] words = line.split("\\s+");
+
+        switch (words[0]) {
+            case "uci":
+                out.println("id name " + NAME);
+                out.println("id author " + AUTHOR);
+                out.println("option name Hash type spin default " + Engine.DEFAULT_HASH_MEGABYTES + " min 1 max " + MAX_HASH_MEGABYTES);
+                out.println("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                out.println("uciok");
+                break;
+            case "isready":
+                out.println("readyok");
+                break;
+            case "setoption":
+                setOption(words);
+                break;
+            case "ucinewgame":
+                waitForSearch();
+                engine.clearHash();
+                break;
+            case "position":
+                waitForSearch();
+                setPosition(line);
+                break;
+            case "go":
+                waitForSearch();
+                go(words);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                break;
+        }
+
+        return true;
+    }
+
+    /**
+     * Handles "setoption name [name] value [value]". The engine can't be changed while it's searching, so this waits for the search to end.
+     */
+    private void setOption(String[] words) {
+        if (words.length < 5 || !words[1].equals("name") || !words[3].equals("value")) {
+            out.println("info string Expected setoption name [name] value [value]");
+            return;
+        }
+
+        waitForSearch();
+
+        try {
+            int value = Integer.parseInt(words[4]);
+
+            if (words[2].equalsIgnoreCase("Hash")) {
+                engine.setHashSize(Math.max(1, Math.min(value, MAX_HASH_MEGABYTES)));
+            }
+            else if (words[2].equalsIgnoreCase("Threads")) {
+                engine.setThreads(Math.max(1, Math.min(value, MAX_THREADS)));
+            }
+            else {
+                out.println("info string Unknown option " + words[2]);
+            }
+        }
+        catch (NumberFormatException e) {
+            out.println("info string The value of " + words[2] + " isn't a number: " + words[4]);
+        }
+    }
+
+    /**
+     * Handles "position startpos [moves ...]" and "position fen [fen] [moves ...]". If the FEN
+     * or one of the moves isn't valid, the position is left as it was at that point.
+     */
+    private void setPosition(String line) {
+        int movesStart = line.indexOf(" moves ");
+        int setupEnd = movesStart >= 0 ? movesStart : line.length();
+        String setup = line.substring("position".length(), setupEnd).trim();
+
+        try {
+            if (setup.equals("startpos")) {
+                position.loadFen(Perft.STARTING_FEN);
+            }
+            else if (setup.startsWith("fen ")) {
+                position.loadFen(setup.substring(4).trim());
+            }
+            else {
+                out.println("info string Expected position startpos or position fen [fen]");
+                return;
+            }
+        }
+        catch (IllegalArgumentException e) {
+            out.println("info string " + e.getMessage());
+            position.loadFen(Perft.STARTING_FEN);
+            return;
+        }
+
+        if (movesStart < 0) {
+            return;
+        }
+
+        // The moves are read straight out of the line, without splitting it up.
+        int index = movesStart + " moves ".length();
+        while (index < line.length()) {
+            int end = line.indexOf(' ', index);
+            end = end < 0 ? line.length() : end;
+
+            if (end > index) {
+                int move = MoveParser.parseMove(position, line, index, end, moveBuffer);
+
+                if (MoveParser.isError(move) || position.historySize() == Position.MAX_HISTORY) {
+                    out.println("info string Move " + line.substring(index, end) + ": "
+                        + (MoveParser.isError(move) ? MoveParser.describeError(move) : "The game is too long to keep track of."));
+                    return;
+                }
+
+                position.makeMove(move);
+            }
+
+            index = end + 1;
+        }
+    }
+
+    /**
+     * Handles "go", starting a search on the search thread.
+     */
+    private void go(String[] words) {
+        SearchLimits limits = new SearchLimits();
+        boolean infinite = false;
+
+        try {
+            for (int i = 1; i < words.length; i++) {
+                switch (words[i]) {
+                    case "depth": limits.setDepth(Integer.parseInt(words[++i])); break;
+                    case "movetime": limits.setMoveTime(Long.parseLong(words[++i])); break;
+                    case "nodes": limits.setNodes(Long.parseLong(words[++i])); break;
+                    case "wtime": limits.setWhiteTime(Long.parseLong(words[++i])); break;
+                    case "btime": limits.setBlackTime(Long.parseLong(words[++i])); break;
+                    case "winc": limits.setWhiteIncrement(Long.parseLong(words[++i])); break;
+                    case "binc": limits.setBlackIncrement(Long.parseLong(words[++i])); break;
+                    case "movestogo": limits.setMovesToGo(Integer.parseInt(words[++i])); break;
+                    case "infinite": infinite = true; break;
+                    default: break;
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            out.println("info string Expected a number after " + words[words.length - 1]);
+            return;
+        }
+
+        boolean waitForStop = infinite;
+        stopRequested = false;
+        lastInfo = null;
+        search = searchThread.submit(() -> {
+            SearchInfo info = null;
+
+            // The GUI waits for a best move after every "go", so one is always sent, even if the search fails.
+            try {
+                info = engine.bestMove(position, limits);
+            }
+            catch (RuntimeException e) {
+                out.println("info string The search failed: " + e);
+            }
+
+            // An infinite search can finish early, i.e. when it finds a mate, but the best move is only sent once it's told to stop.
+            synchronized (this) {
+                while (waitForStop && !stopRequested) {
+                    wait();
+                }
+            }
+
+            int bestMove = info != null ? info.getBestMove() : fallbackMove();
+            int ponderMove = info != null ? info.getPonderMove() : Move.NONE;
+            out.println("bestmove " + (bestMove != Move.NONE ? Move.toString(bestMove) : "0000")
+                + (ponderMove != Move.NONE ? " ponder " + Move.toString(ponderMove) : ""));
+            return null;
+        });
+    }
+
+    /**
+     * @return The best move of the last depth a failed search finished, or else any legal
+     * move, or {@link Move#NONE} if there are none.
+     */
+    private int fallbackMove() {
+        SearchInfo info = lastInfo;
+
+        if (info != null && info.getBestMove() != Move.NONE) {
+            return info.getBestMove();
+        }
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        return MoveGenerator.generateLegalMoves(position, moves) > 0 ? moves[0] : Move.NONE;
+    }
+
+    private synchronized void stopSearch() {
+        stopRequested = true;
+        engine.stop();
+        notifyAll();
+    }
+
+    /**
+     * Blocks until the current search, if there is one, has sent its best move. The search
+     * reports its own failures and still sends a move, so anything caught here went wrong
+     * around it. That's reported as an "info string" line too, and the engine keeps taking commands.
+     */
+    private void waitForSearch() {
+        if (search == null) {
+            return;
+        }
+
+        try {
+            search.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            out.println("info string The search failed: " + e.getCause());
+        }
+        finally {
+            search = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package chess.pgn;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import chess.Move;
+import chess.Position;
+
+/**
+ * One game read by a {@link PgnReader}: its tags, the moves it was replayed with and the
+ * position it ended in. The same object is filled again for every game, so reading a whole
+ * collection only creates the tag strings.
+ * @author Haris Mehuljic
+ */
+public class PgnGame {
+    private final Map<String, String> tags = new LinkedHashMap<String, String>();
+    private final Position position = new Position();
+    private final int[] moves = new int[Position.MAX_HISTORY];
+    private int moveCount;
+    private String result;
+    private String error;
+
+    /**
+     * Empties the game before the next one is read into it.
+     */
+    void reset() {
+        tags.clear();
+        position.clear();
+        moveCount = 0;
+        result = "*";
+        error = null;
+    }
+
+    void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    void addMove(int move) {
+        moves[moveCount++] = move;
+    }
+
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Marks the game as broken. Only the first error is kept, and no more moves are read.
+     * @param error A description of what is wrong.
+     */
+    void setError(String error) {
+        if (this.error == null) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * @param name The name of a tag, i.e. "White".
+     * @return The value of the tag, or null if the game doesn't have it.
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @return The FEN of the position the game started from, or null if it started from the usual starting position.
+     */
+    public String getStartingFen() {
+        return tags.get("FEN");
+    }
+
+    /**
+     * @return The position after the last move that was read. The moves of the game are on its
+     * undo stack, so it can be walked back to the start with {@link Position#unmakeMove()}.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * @param index The number of the half-move, starting at 0 for the first move of the game.
+     * @return The packed move.
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+
+        return moves[index];
+    }
+
+    /**
+     * @return The number of half-moves that were read. If the game has an error, it's the number before the error.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @return The result written at the end of the movetext: "1-0", "0-1", "1/2-1/2" or "*".
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return A description of the first thing wrong with the game, such as an illegal move, or null if there is none.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    /**
+     * @return The moves of the game in coordinate notation, i.e. "e2e4 e7e5 g1f3".
+     */
+    public String movesToString() {
+        StringBuilder text = new StringBuilder(moveCount * 5);
+
+        for (int i = 0; i < moveCount; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+
+            text.append(Move.toString(moves[i]));
+        }
+
+        return text.toString();
+    }
+}
@@ -0,0 +1,417 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveParser;
+import chess.Perft;
+import chess.Position;
+
+/**
+ * Reads games in Portable Game Notation (PGN) one at a time, replaying each move as it's
+ * read. The input is read through a fixed-size buffer, so files of any size can be read
+ * with the same small amount of memory, and nothing is kept from one game to the next.
+ *
+ * Moves are written in standard algebraic notation (SAN), i.e. "Nbd7", "exd5" or "e8=Q+".
+ * Each one is matched by {@link MoveParser} against the legal moves of the position it's played in, so a game
+ * that reads without errors has been checked against the move generators move by move.
+ * Comments, variations and numeric annotation glyphs are skipped. A game with a move that
+ * can't be played is reported through {@link PgnGame#getError()}, and reading carries on
+ * with the next game.
+ *
+ * Usage:
+ * <pre>
+ *  java chess.pgn.PgnReader [file]   Replays every game in the file (or standard input if there is none or
+ *                                    it's "-"), printing any errors and how many games were read per second
+ * </pre>
+ * @see https://www.chessprogramming.org/Portable_Game_Notation
+ * @author Haris Mehuljic
+ */
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_TOKEN_LENGTH = 32; // Longer than any move, move number or result.
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+    private byte[] text = new byte[256]; // Holds tag names and values, and grows if one is longer.
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private int pushedBack = -1;
+    private boolean endOfInput;
+    private long bytesRead;
+
+    /**
+     * Opens a PGN file for reading.
+     * @param path The file.
+     * @throws IOException If the file can't be opened.
+     */
+    public PgnReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads PGN from a channel, i.e. standard input through {@link Channels#newChannel(java.io.InputStream)}.
+     * @param channel The channel. It's closed when the reader is.
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip(); // Start out empty, so the first read fills the buffer.
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "-";
+        PgnGame game = new PgnGame();
+        long games = 0;
+        long moves = 0;
+        long errors = 0;
+        long start = System.nanoTime();
+
+        try (PgnReader reader = file.equals("-") ? new PgnReader(Channels.newChannel(System.in))
+                                                 : new PgnReader(Paths.get(file))) {
+            while (reader.readGame(game)) {
+                games++;
+                moves += game.getMoveCount();
+
+                if (game.hasError()) {
+                    errors++;
+                    System.err.println("Game " + games + ": " + game.getError());
+                }
+            }
+
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+            System.out.printf("%d games, %d moves, %d with errors, %.1f MB in %.2f s%n",
+                              games, moves, errors, reader.getBytesRead() / 1e6, seconds);
+            System.out.printf("%.0f games/s, %.0f moves/s%n", games / seconds, moves / seconds);
+        }
+
+        System.exit(errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Reads the next game and replays its moves.
+     * @param game The game to fill. Anything it held before is cleared.
+     * @return False if there are no more games.
+     * @throws IOException If the input can't be read.
+     */
+    public boolean readGame(PgnGame game) throws IOException {
+        game.reset();
+        int c = skipWhitespace();
+
+        if (c == -1) {
+            return false;
+        }
+
+        while (c == '[') {
+            readTag(game);
+            c = skipWhitespace();
+        }
+
+        Position position = game.getPosition();
+        String fen = game.getStartingFen();
+        try {
+            position.loadFen(fen != null ? fen : Perft.STARTING_FEN);
+        }
+        catch (IllegalArgumentException e) {
+            game.setError(e.getMessage());
+        }
+
+        while (c != -1) {
+            if (c == '[') {
+                // The next game's tags, so this game had no result at the end of it.
+                pushedBack = c;
+                break;
+            }
+            else if (c == '{') {
+                skipPast('}');
+            }
+            else if (c == ';' || c == '%') {
+                skipPast('\n');
+            }
+            else if (c == '(') {
+                skipVariation();
+            }
+            else if (c == '$' || c == ')') {
+                readToken(c);
+            }
+            else {
+                int length = readToken(c);
+
+                if (isResult(length)) {
+                    game.setResult(token.toString());
+                    break;
+                }
+
+                readMoveToken(game, length);
+            }
+
+            c = skipWhitespace();
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The number of bytes read from the input so far.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Handles a token from the movetext that isn't a result, which is a move number, a move,
+     * or both when there's no space between them, i.e. "12.Nf3" or "12...Nf3".
+     */
+    private void readMoveToken(PgnGame game, int length) {
+        int start = 0;
+        while (start < length && token.charAt(start) >= '0' && token.charAt(start) <= '9') {
+            start++;
+        }
+
+        // Digits alone can't be a move, so they must be a move number, whether or not the dots follow.
+        if (start > 0 && start < length && token.charAt(start) != '.') {
+            start = 0;
+        }
+
+        while (start < length && token.charAt(start) == '.') {
+            start++;
+        }
+
+        // Annotations like "!" and "?" can follow the check or mate sign, and aren't needed.
+        while (length > start && (token.charAt(length - 1) == '!' || token.charAt(length - 1) == '?')) {
+            length--;
+        }
+
+        if (start == length || game.hasError()) {
+            return;
+        }
+
+        Position position = game.getPosition();
+        int move = MoveParser.parseMove(position, token, start, length, moveBuffer);
+
+        if (MoveParser.isError(move)) {
+            game.setError((move == MoveParser.AMBIGUOUS_MOVE ? "Ambiguous move " : "Illegal move ") + tokenString(start, length)
+                          + " at move " + moveNumber(position.fullmoveNumber(), position.sideToMove()));
+            return;
+        }
+
+        if (position.historySize() == Position.MAX_HISTORY) {
+            game.setError("The game is longer than " + Position.MAX_HISTORY + " half-moves");
+            return;
+        }
+
+        int fullmoveNumber = position.fullmoveNumber();
+        int side = position.sideToMove();
+        position.makeMove(move);
+        game.addMove(move);
+
+        // The check and mate signs aren't needed to find the move, but when they're there they
+        // have to be right, which checks that the position after the move is right as well. A
+        // mate is also a check, and plenty of games mark it with a plus, so that's accepted.
+        char sign = token.charAt(length - 1);
+        if (sign == '+' || sign == '#') {
+            boolean check = position.isKingAttacked(position.sideToMove());
+            boolean mate = sign == '#' && check && MoveGenerator.generateLegalMoves(position, moveBuffer) == 0;
+
+            if (sign == '+' ? !check : !mate) {
+                game.setError(tokenString(start, length) + (sign == '+' ? " isn't check" : " isn't checkmate")
+                              + " at move " + moveNumber(fullmoveNumber, side));
+            }
+        }
+    }
+
+    private boolean isResult(int length) {
+        return matches("1-0", length) || matches("0-1", length) || matches("1/2-1/2", length) || matches("*", length);
+    }
+
+    private boolean matches(String expected, int length) {
+        if (length != expected.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (token.charAt(i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String moveNumber(int fullmoveNumber, int side) {
+        return fullmoveNumber + (side == ChessPiece.WHITE ? "." : "...");
+    }
+
+    private String tokenString(int start, int end) {
+        return token.substring(start, end);
+    }
+
+    /**
+     * Reads a tag pair like [White "Kasparov, Garry"] after its opening bracket.
+     */
+    private void readTag(PgnGame game) throws IOException {
+        int c = skipWhitespace();
+        int length = 0;
+
+        while (c != -1 && c != '"' && c != ']' && !isWhitespace(c)) {
+            length = append(length, c);
+            c = read();
+        }
+
+        String name = new String(text, 0, length, StandardCharsets.UTF_8);
+        if (isWhitespace(c)) {
+            c = skipWhitespace();
+        }
+
+        length = 0;
+        if (c == '"') {
+            c = read();
+
+            while (c != -1 && c != '"') {
+                if (c == '\\') {
+                    c = read(); // An escaped quote or backslash is part of the value.
+                }
+
+                if (c != -1) {
+                    length = append(length, c);
+                    c = read();
+                }
+            }
+
+            c = read();
+        }
+
+        while (c != -1 && c != ']' && c != '\n') {
+            c = read();
+        }
+
+        game.setTag(name, new String(text, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private int append(int length, int c) {
+        if (length == text.length) {
+            text = Arrays.copyOf(text, length * 2);
+        }
+
+        text[length] = (byte) c;
+        return length + 1;
+    }
+
+    /**
+     * Reads the rest of a token that starts with the given character into the token buffer.
+     * @return The length of the token. Anything beyond {@link #MAX_TOKEN_LENGTH} is dropped.
+     */
+    private int readToken(int c) throws IOException {
+        token.setLength(0);
+
+        while (c != -1 && !isWhitespace(c) && c != '{' && c != '(' && c != ')' && c != ';' && c != '[' && c != '$'
+               || token.length() == 0) {
+            if (token.length() < MAX_TOKEN_LENGTH) {
+                token.append((char) c);
+            }
+
+            c = read();
+        }
+
+        pushedBack = c;
+        return token.length();
+    }
+
+    /**
+     * Skips a variation after its opening parenthesis, along with any variations and comments inside it.
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+
+        while (depth > 0) {
+            int c = read();
+
+            if (c == -1) {
+                return;
+            }
+            else if (c == '(') {
+                depth++;
+            }
+            else if (c == ')') {
+                depth--;
+            }
+            else if (c == '{') {
+                skipPast('}');
+            }
+            else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private void skipPast(int end) throws IOException {
+        int c = read();
+
+        while (c != -1 && c != end) {
+            c = read();
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+
+        while (isWhitespace(c)) {
+            c = read();
+        }
+
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * @return The next byte of input, or -1 at the end of it.
+     */
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+
+        if (!buffer.hasRemaining()) {
+            if (endOfInput) {
+                return -1;
+            }
+
+            buffer.clear();
+            int read = channel.read(buffer);
+            while (read == 0) {
+                read = channel.read(buffer);
+            }
+
+            buffer.flip();
+            if (read < 0) {
+                endOfInput = true;
+                return -1;
+            }
+
+            bytesRead += read;
+        }
+
+        return buffer.get() & 0xFF;
+    }
+}
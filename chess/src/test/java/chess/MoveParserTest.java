@@ -0,0 +1,105 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the error codes {@link MoveParser} gives for bad squares and moves, and that SAN
+ * moves are told apart by the file or row of the piece that makes them.
+ * @author Haris Mehuljic
+ */
+class MoveParserTest {
+    // Two white knights that can both reach d2, and two white rooks that can both reach a3.
+    private static final String TWO_KNIGHTS_FEN = "4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1";
+    private static final String TWO_ROOKS_FEN = "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1";
+    private static final String PROMOTION_FEN = "4k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    @Test
+    void squaresInEitherCaseAreRead() {
+        assertEquals(0, MoveParser.parseSquare("A1"));
+        assertEquals(28, MoveParser.parseSquare("E4"));
+        assertEquals(28, MoveParser.parseSquare("e4"));
+        assertEquals(63, MoveParser.parseSquare("h8"));
+    }
+
+    @Test
+    void badSquaresGiveTheRightError() {
+        assertEquals(MoveParser.INVALID_FORMAT, MoveParser.parseSquare(""));
+        assertEquals(MoveParser.INVALID_FORMAT, MoveParser.parseSquare("E"));
+        assertEquals(MoveParser.INVALID_FORMAT, MoveParser.parseSquare("E44"));
+        assertEquals(MoveParser.INVALID_FORMAT, MoveParser.parseSquare("4E"));
+        assertEquals(MoveParser.OUT_OF_BOUNDS, MoveParser.parseSquare("I4"));
+        assertEquals(MoveParser.OUT_OF_BOUNDS, MoveParser.parseSquare("E9"));
+        assertEquals(MoveParser.OUT_OF_BOUNDS, MoveParser.parseSquare("E0"));
+    }
+
+    @Test
+    void onlyTheGivenPartOfTheTextIsRead() {
+        assertEquals(28, MoveParser.parseSquare("xe4x", 1, 3));
+        assertEquals("e2e4", parse(Perft.STARTING_FEN, "1. e2e4", 3, 7));
+    }
+
+    @Test
+    void coordinateMovesAreFound() {
+        assertEquals("e2e4", parse(Perft.STARTING_FEN, "e2e4"));
+        assertEquals("g1f3", parse(Perft.STARTING_FEN, "g1f3"));
+        assertEquals("a7a8q", parse(PROMOTION_FEN, "a7a8q"));
+        assertEquals("a7a8n", parse(PROMOTION_FEN, "a7a8n"));
+    }
+
+    @Test
+    void sanMovesAreFound() {
+        assertEquals("e2e4", parse(Perft.STARTING_FEN, "e4"));
+        assertEquals("g1f3", parse(Perft.STARTING_FEN, "Nf3"));
+        assertEquals("a7a8q", parse(PROMOTION_FEN, "a8=Q+"));
+        assertEquals("a7a8r", parse(PROMOTION_FEN, "a8=R"));
+    }
+
+    @Test
+    void sanMovesAreToldApartByFileOrRow() {
+        assertEquals("b1d2", parse(TWO_KNIGHTS_FEN, "Nbd2"));
+        assertEquals("f3d2", parse(TWO_KNIGHTS_FEN, "Nfd2"));
+        assertEquals("a1a3", parse(TWO_ROOKS_FEN, "R1a3"));
+        assertEquals("a5a3", parse(TWO_ROOKS_FEN, "R5a3"));
+    }
+
+    @Test
+    void movesThatFitMoreThanOnePieceAreAmbiguous() {
+        assertEquals(MoveParser.AMBIGUOUS_MOVE, parseCode(TWO_KNIGHTS_FEN, "Nd2"));
+        assertEquals(MoveParser.AMBIGUOUS_MOVE, parseCode(TWO_ROOKS_FEN, "Ra3"));
+    }
+
+    @Test
+    void movesThatCantBePlayedAreIllegal() {
+        assertEquals(MoveParser.ILLEGAL_MOVE, parseCode(Perft.STARTING_FEN, "e2e5"));
+        assertEquals(MoveParser.ILLEGAL_MOVE, parseCode(Perft.STARTING_FEN, "e5"));
+        assertEquals(MoveParser.ILLEGAL_MOVE, parseCode(Perft.STARTING_FEN, "Nd4"));
+        assertEquals(MoveParser.ILLEGAL_MOVE, parseCode(Perft.STARTING_FEN, "O-O"));
+        assertEquals(MoveParser.ILLEGAL_MOVE, parseCode(TWO_KNIGHTS_FEN, "Ncd2"));
+    }
+
+    @Test
+    void badMovesGiveTheRightError() {
+        assertEquals(MoveParser.INVALID_FORMAT, parseCode(Perft.STARTING_FEN, ""));
+        assertEquals(MoveParser.INVALID_FORMAT, parseCode(Perft.STARTING_FEN, "+"));
+        assertEquals(MoveParser.OUT_OF_BOUNDS, parseCode(Perft.STARTING_FEN, "e2e9"));
+    }
+
+    private String parse(String fen, String text) {
+        return parse(fen, text, 0, text.length());
+    }
+
+    private String parse(String fen, String text, int start, int end) {
+        int move = MoveParser.parseMove(Position.fromFen(fen), text, start, end, moves);
+        assertFalse(MoveParser.isError(move), () -> text + ": " + MoveParser.describeError(move));
+        return Move.toString(move);
+    }
+
+    private int parseCode(String fen, String text) {
+        return MoveParser.parseMove(Position.fromFen(fen), text, moves);
+    }
+}
@@ -0,0 +1,129 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the incrementally updated hashes of {@link Position} stay right through every
+ * move and take-back of the perft suite, and that positions survive being written out and
+ * read back, both as FEN and in the binary encoding.
+ * @author Haris Mehuljic
+ */
+class PositionTest {
+    private static final int HASH_DEPTH = 3;
+
+    // Positions that aren't in the perft suite, with en passant squares, odd counters and missing castling rights.
+    private static final String[] EXTRA_FENS = {
+        "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+        "rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3",
+        "4k3/8/8/8/8/8/8/4K2R w K - 37 92",
+        "8/8/4k3/8/8/4K3/8/8 b - - 99 150"
+    };
+
+    // Positions loadFen has to turn down, each with a different thing wrong.
+    private static final String[] INVALID_FENS = {
+        "8/8/8/8/8/8/8/8 w - - 0 1",                                  // No kings at all.
+        "4k3/8/8/8/8/8/8/4KK2 w - - 0 1",                             // Two white kings.
+        "4k3/8/8/8/8/8/8/3K4/8 w - - 0 1",                            // Nine ranks.
+        "4k3/8/8/8/8/8/8 w - - 0 1",                                  // Seven ranks.
+        "4k3/9/8/8/8/8/8/4K3 w - - 0 1",                              // A rank of nine squares.
+        "4k3/7/8/8/8/8/8/4K3 w - - 0 1",                              // A rank of seven squares.
+        "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",                             // A pawn on the last rank.
+        "4k3/8/8/8/8/8/8/p3K3 w - - 0 1",                             // A pawn on the first rank.
+        "4k3/8/8/8/8/8/8/4K3 w K - 0 1",                              // Castling rights without a rook.
+        "r3k2r/8/8/8/8/8/8/R4K1R w KQkq - 0 1",                       // Castling rights with the king moved.
+        "4k3/8/8/8/8/8/8/4K2R x K - 0 1",                             // An unknown side to move.
+        "4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1",                           // En passant with no pawn that passed over the square.
+        "4k3/8/8/8/3Pp3/8/8/4K3 w - e3 0 1",                          // En passant on the wrong row for the side to move.
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq"          // Missing fields.
+    };
+
+    private final int[][] moveBuffers = new int[HASH_DEPTH + 1][MoveGenerator.MAX_MOVES];
+
+    @Test
+    void hashesMatchAfterEveryMoveAndTakeBack() {
+        for (String fen : Perft.SUITE_FENS) {
+            Position position = Position.fromFen(fen);
+            assertHashes(position, fen);
+            walk(position, HASH_DEPTH, 0, fen);
+        }
+    }
+
+    @Test
+    void fenRoundTrips() {
+        for (String fen : allFens()) {
+            assertEquals(fen, Position.fromFen(fen).toFen());
+        }
+    }
+
+    @Test
+    void enPassantSquareNoPawnCanTakeOnIsDropped() {
+        Position position = Position.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(Position.NO_SQUARE, position.enPassantSquare());
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", position.toFen());
+    }
+
+    @Test
+    void encodingRoundTrips() {
+        ByteBuffer buffer = ByteBuffer.allocate(Position.ENCODED_SIZE);
+        Position decoded = new Position();
+
+        for (String fen : allFens()) {
+            Position position = Position.fromFen(fen);
+            buffer.clear();
+            position.encode(buffer);
+            assertEquals(Position.ENCODED_SIZE, buffer.position(), fen);
+
+            buffer.flip();
+            decoded.decode(buffer);
+            assertEquals(fen, decoded.toFen());
+            assertEquals(position.hash(), decoded.hash(), fen);
+            assertEquals(position.pawnKey(), decoded.pawnKey(), fen);
+        }
+    }
+
+    @Test
+    void impossiblePositionsAreRejected() {
+        for (String fen : INVALID_FENS) {
+            assertThrows(IllegalArgumentException.class, () -> Position.fromFen(fen), fen);
+        }
+    }
+
+    private void walk(Position position, int depth, int ply, String line) {
+        if (depth == 0) {
+            return;
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+
+        for (int i = 0; i < count; i++) {
+            String next = line + " " + Move.toString(moves[i]);
+            long before = position.hash();
+
+            position.makeMove(moves[i]);
+            assertHashes(position, next);
+            walk(position, depth - 1, ply + 1, next);
+            position.unmakeMove();
+
+            assertHashes(position, line);
+            assertEquals(before, position.hash(), "taking back " + next);
+        }
+    }
+
+    private static void assertHashes(Position position, String line) {
+        assertEquals(position.computeHash(), position.hash(), line);
+        assertEquals(position.computePawnKey(), position.pawnKey(), line);
+    }
+
+    private static String[] allFens() {
+        String[] fens = new String[Perft.SUITE_FENS.length + EXTRA_FENS.length];
+        System.arraycopy(Perft.SUITE_FENS, 0, fens, 0, Perft.SUITE_FENS.length);
+        System.arraycopy(EXTRA_FENS, 0, fens, Perft.SUITE_FENS.length, EXTRA_FENS.length);
+        return fens;
+    }
+}
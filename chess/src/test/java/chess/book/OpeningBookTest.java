@@ -0,0 +1,132 @@
+package chess.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveParser;
+import chess.Perft;
+import chess.Position;
+
+/**
+ * Checks the position keys against the ones published with the Polyglot book format, and
+ * that a book written by hand with one of those keys gives back its moves.
+ * @author Haris Mehuljic
+ */
+class OpeningBookTest {
+    private static final long STARTING_KEY = 0x463b96181691fc9cL;
+
+    // Moves played from the starting position, and the published key of the position after each of them.
+    private static final String[] KEY_MOVES = {"e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"};
+    private static final long[] KEYS = {
+        0x823c9b50fd114196L,
+        0x0756b94461c50fb0L,
+        0x662fafb965db29d4L,
+        0x22a48b5a8e47ff78L,
+        0x652a607ca3f242c1L,
+        0x00fdd303c946bdd9L
+    };
+    // A second line, with an en passant capture that can be made and a rook leaving its corner.
+    private static final String[] OTHER_KEY_MOVES = {"a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3"};
+    private static final long[] OTHER_KEYS = {0, 0, 0, 0, 0x3c8123ea7b067637L, 0, 0x5c3f9b829b279560L};
+
+    @TempDir
+    Path directory;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] weights = new int[MoveGenerator.MAX_MOVES];
+
+    @Test
+    void keysMatchThePublishedOnes() {
+        Position position = Position.fromFen(Perft.STARTING_FEN);
+        assertEquals(STARTING_KEY, PolyglotKey.of(position));
+        checkKeys(position, KEY_MOVES, KEYS);
+        checkKeys(Position.fromFen(Perft.STARTING_FEN), OTHER_KEY_MOVES, OTHER_KEYS);
+    }
+
+    @Test
+    void bookMovesAreFoundByTheirKey() throws IOException {
+        int e2e4 = 28 | (12 << 6);
+        int d2d4 = 27 | (11 << 6);
+        int e2e5 = 36 | (12 << 6); // Not a legal move, so it's left out.
+        OpeningBook book = writeBook(
+            entry(1, e2e4, 9),
+            entry(STARTING_KEY, e2e4, 3),
+            entry(STARTING_KEY, e2e5, 5),
+            entry(STARTING_KEY, d2d4, 1),
+            entry(0x823c9b50fd114196L, 35 | (51 << 6), 1),
+            entry(-1, d2d4, 9) // Sorts last, since the keys are compared as unsigned numbers.
+        );
+
+        Position position = Position.fromFen(Perft.STARTING_FEN);
+        assertEquals(2, book.findMoves(position, moves, weights));
+        assertEquals("e2e4", Move.toString(moves[0]));
+        assertEquals(3, weights[0]);
+        assertEquals("d2d4", Move.toString(moves[1]));
+        assertEquals(1, weights[1]);
+
+        play(position, "e2e4");
+        assertEquals(1, book.findMoves(position, moves, weights));
+        assertEquals("d7d5", Move.toString(moves[0]));
+
+        play(position, "d7d5");
+        assertEquals(0, book.findMoves(position, moves, weights));
+        assertEquals(Move.NONE, book.pickMove(position, new Random(1)));
+    }
+
+    @Test
+    void castlingIsWrittenAsTheKingTakingItsRook() {
+        Position position = Position.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals(7 | (4 << 6), OpeningBook.encodeMove(MoveParser.parseMove(position, "O-O", moves)));
+        assertEquals(0 | (4 << 6), OpeningBook.encodeMove(MoveParser.parseMove(position, "O-O-O", moves)));
+    }
+
+    @Test
+    void promotionsKeepTheirPiece() {
+        Position position = Position.fromFen("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(56 | (48 << 6) | (4 << 12), OpeningBook.encodeMove(MoveParser.parseMove(position, "a7a8q", moves)));
+        assertEquals(56 | (48 << 6) | (1 << 12), OpeningBook.encodeMove(MoveParser.parseMove(position, "a7a8n", moves)));
+    }
+
+    private void checkKeys(Position position, String[] line, long[] keys) {
+        for (int i = 0; i < line.length; i++) {
+            play(position, line[i]);
+
+            if (keys[i] != 0) {
+                assertEquals(Long.toHexString(keys[i]), Long.toHexString(PolyglotKey.of(position)), "After " + line[i]);
+            }
+        }
+    }
+
+    private void play(Position position, String move) {
+        int parsed = MoveParser.parseMove(position, move, moves);
+        assertFalse(MoveParser.isError(parsed), move);
+        position.makeMove(parsed);
+    }
+
+    private static byte[] entry(long key, int move, int weight) {
+        return ByteBuffer.allocate(OpeningBook.ENTRY_SIZE).putLong(key).putShort((short) move).putShort((short) weight).array();
+    }
+
+    private OpeningBook writeBook(byte[]... entries) throws IOException {
+        ByteBuffer book = ByteBuffer.allocate(entries.length * OpeningBook.ENTRY_SIZE);
+
+        for (byte[] entry : entries) {
+            book.put(entry);
+        }
+
+        Path path = directory.resolve("book.bin");
+        Files.write(path, book.array());
+        return new OpeningBook(path);
+    }
+}
@@ -0,0 +1,91 @@
+package chess.pgn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link PgnReader} holds check and mate signs to what the moves really do: a
+ * mate may be marked with either sign, a check that isn't mate only with a plus, and a move
+ * that gives neither with none.
+ * @author Haris Mehuljic
+ */
+class PgnReaderTest {
+    @Test
+    void mateMarkedAsMateIsAccepted() throws IOException {
+        PgnGame game = read("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0");
+        assertNull(game.getError());
+        assertEquals(7, game.getMoveCount());
+        assertEquals("1-0", game.getResult());
+    }
+
+    @Test
+    void mateMarkedAsCheckIsAccepted() throws IOException {
+        assertNull(read("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7+ 1-0").getError());
+    }
+
+    @Test
+    void checkMarkedAsCheckIsAccepted() throws IOException {
+        assertNull(read("1. e4 f5 2. Qh5+ g6 *").getError());
+    }
+
+    @Test
+    void checkMarkedAsMateIsAnError() throws IOException {
+        assertEquals("Qh5# isn't checkmate at move 2.", read("1. e4 f5 2. Qh5# g6 *").getError());
+    }
+
+    @Test
+    void quietMoveMarkedAsCheckIsAnError() throws IOException {
+        assertEquals("Bc4+ isn't check at move 2.", read("1. e4 e5 2. Bc4+ Nc6 *").getError());
+    }
+
+    @Test
+    void quietMoveMarkedAsMateIsAnError() throws IOException {
+        assertEquals("Nc6# isn't checkmate at move 1...", read("1. e4 Nc6# *").getError());
+    }
+
+    @Test
+    void annotationsAfterTheSignAreIgnored() throws IOException {
+        assertNull(read("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6?? 4. Qxf7#! 1-0").getError());
+    }
+
+    @Test
+    void gamesAfterABrokenOneAreStillRead() throws IOException {
+        String pgn = "[Event \"First\"]\n\n1. e4 e5 2. Bc4+ *\n\n[Event \"Second\"]\n\n1. e4 f5 2. Qh5+ *\n";
+        PgnGame game = new PgnGame();
+
+        try (PgnReader reader = reader(pgn)) {
+            assertTrue(reader.readGame(game));
+            assertEquals("Bc4+ isn't check at move 2.", game.getError());
+
+            assertTrue(reader.readGame(game));
+            assertEquals("Second", game.getTag("Event"));
+            assertNull(game.getError());
+            assertEquals(3, game.getMoveCount());
+
+            assertFalse(reader.readGame(game));
+        }
+    }
+
+    private static PgnGame read(String pgn) throws IOException {
+        PgnGame game = new PgnGame();
+
+        try (PgnReader reader = reader(pgn)) {
+            assertTrue(reader.readGame(game));
+        }
+
+        return game;
+    }
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.US_ASCII))));
+    }
+}